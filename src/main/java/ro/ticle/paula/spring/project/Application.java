@@ -2,8 +2,10 @@ package ro.ticle.paula.spring.project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.session.SessionAutoConfiguration;
 
-@SpringBootApplication
+// Session storage is chosen by session.store, see JdbcSessionConfig
+@SpringBootApplication(exclude = SessionAutoConfiguration.class)
 public class Application {
 
 	public static void main(String[] args) {
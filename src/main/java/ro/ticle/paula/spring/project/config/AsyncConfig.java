@@ -0,0 +1,10 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async methods run on the application task executor Spring Boot configures
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
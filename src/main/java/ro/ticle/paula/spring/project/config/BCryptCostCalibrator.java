@@ -0,0 +1,43 @@
+package ro.ticle.paula.spring.project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt cost whose hash time stays within the target latency on the current hardware.
+ * Only the lowest allowed cost is timed, every further cost level doubles the work.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minimumCost, int maximumCost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minimumCost);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        int cost = costFor(Duration.ofNanos(fastest), targetLatency, minimumCost, maximumCost);
+        log.info("BCrypt cost {} hashes in {} ms, calibrated cost {} for a target of {} ms",
+                minimumCost, fastest / 1_000_000, cost, targetLatency.toMillis());
+        return cost;
+    }
+
+    static int costFor(Duration atMinimumCost, Duration targetLatency, int minimumCost, int maximumCost) {
+        int cost = minimumCost;
+        long nanos = atMinimumCost.toNanos();
+        while (cost < maximumCost && nanos * 2 <= targetLatency.toNanos()) {
+            cost++;
+            nanos *= 2;
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,23 @@
+package ro.ticle.paula.spring.project.config;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+
+// Shared by every login of the user, so unlike Spring's User it is not a CredentialsContainer whose password
+// the authentication manager erases after a successful login
+@Value
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "password")
+public class CachedUserDetails implements UserDetails {
+
+    @EqualsAndHashCode.Include
+    String username;
+    String password;
+    boolean enabled;
+    Set<GrantedAuthority> authorities;
+}
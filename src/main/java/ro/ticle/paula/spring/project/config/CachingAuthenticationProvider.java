@@ -0,0 +1,104 @@
+package ro.ticle.paula.spring.project.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers recent successful password verifications so that clients re-authenticating with the same
+ * credentials skip the password hash. Entries are keyed by an HMAC of username and password under a key
+ * that is generated at startup and never leaves the process, so the cache holds no reusable secret.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> verifiedCredentials;
+    private final Timer verificationCpu;
+    private final Counter cpuSaved;
+    private final SecretKeySpec key;
+    // Bumped by every eviction, a verification that overlaps one must not be kept
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate,
+                                         Cache<String, Authentication> verifiedCredentials,
+                                         Timer verificationCpu,
+                                         Counter cpuSaved) {
+        this.delegate = delegate;
+        this.verifiedCredentials = verifiedCredentials;
+        this.verificationCpu = verificationCpu;
+        this.cpuSaved = cpuSaved;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String cacheKey = cacheKey(authentication.getName(), password);
+        Authentication verified = verifiedCredentials.getIfPresent(cacheKey);
+        if (verified != null) {
+            cpuSaved.increment(verificationCpu.mean(TimeUnit.SECONDS));
+            // A fresh token per request, callers attach request details to the result
+            return UsernamePasswordAuthenticationToken.authenticated(verified.getPrincipal(), null, verified.getAuthorities());
+        }
+
+        long generation = evictions.get();
+        // Counts the hash on the hashing executor too, the request thread itself only waits for it
+        long cpuStart = OffloadingPasswordEncoder.currentThreadCpuTime();
+        Authentication result = delegate.authenticate(authentication);
+        verificationCpu.record(OffloadingPasswordEncoder.currentThreadCpuTime() - cpuStart, TimeUnit.NANOSECONDS);
+        if (result != null) {
+            verifiedCredentials.put(cacheKey, result);
+            if (evictions.get() != generation) {
+                verifiedCredentials.invalidate(cacheKey);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    // Runs after commit, like the user details eviction, so a concurrent login cannot re-cache replaced data
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evict(UserDetailsChangedEvent event) {
+        evictions.incrementAndGet();
+        Set<String> usernames = Set.copyOf(event.usernames());
+        verifiedCredentials.asMap().values().removeIf(verified -> usernames.contains(verified.getName()));
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ro.ticle.paula.spring.project.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+// Opt-in, without it the authentication manager keeps the plain DaoAuthenticationProvider Spring Boot configures
+@Configuration
+@ConditionalOnProperty(prefix = "security.credential-cache", name = "enabled", havingValue = "true")
+public class CredentialCacheConfig {
+
+    @Value("${security.credential-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    // Also the longest an old password keeps working on another node after it changed
+    @Value("${security.credential-cache.expire-after-write:1m}")
+    private Duration expireAfterWrite;
+
+    @Bean
+    public CachingAuthenticationProvider cachingAuthenticationProvider(UserDetailsService userDetailsService,
+                                                                       UserDetailsPasswordService userDetailsPasswordService,
+                                                                       PasswordEncoder passwordEncoder,
+                                                                       MeterRegistry meterRegistry) {
+        DaoAuthenticationProvider delegate = new DaoAuthenticationProvider(passwordEncoder);
+        delegate.setUserDetailsService(userDetailsService);
+        delegate.setUserDetailsPasswordService(userDetailsPasswordService);
+
+        Cache<String, Authentication> verifiedCredentials = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedCredentials, "verifiedCredentials");
+
+        Timer verificationCpu = Timer.builder("security.credential.verification.cpu")
+                .description("CPU time of password verifications that missed the credential cache")
+                .register(meterRegistry);
+        Counter cpuSaved = Counter.builder("security.credential-cache.cpu.saved")
+                .description("Estimated CPU time saved by credential cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return new CachingAuthenticationProvider(delegate, verifiedCredentials, verificationCpu, cpuSaved);
+    }
+}
@@ -1,42 +1,80 @@
 package ro.ticle.paula.spring.project.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.entity.User;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
 import ro.ticle.paula.spring.project.repository.UserRepository;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Cache<String, UserDetails> userDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    // Users with the same role combination share one immutable authority set
+    private final Map<Set<String>, Set<GrantedAuthority>> authoritySets = new ConcurrentHashMap<>();
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    // Called after a successful login whose stored hash is not in the current encoding or cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(List.of(user.getUsername())));
+        log.info("Rehashed password of user {}", user.getUsername());
+        return new CachedUserDetails(user.getUsername(), newPassword, user.isEnabled(), Set.copyOf(user.getAuthorities()));
+    }
+
+    // Runs after commit, evicting earlier would let a concurrent login cache the data that is being replaced
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evict(UserDetailsChangedEvent event) {
+        userDetailsCache.invalidateAll(event.usernames());
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        Set<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+        Set<String> roles = user.getRoles().stream()
                 .map(Role::getName)
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toUnmodifiableSet());
 
-        return new org.springframework.security.core.userdetails.User(
+        return new CachedUserDetails(
                 user.getUsername(),
                 user.getPassword(),
                 user.isEnabled(),
-                true, // account non-expired
-                true, // credentials non-expired
-                true, // account non-locked
-                authorities
+                authoritySets.computeIfAbsent(roles, CustomUserDetailsService::toAuthorities)
         );
     }
+
+    private static Set<GrantedAuthority> toAuthorities(Set<String> roles) {
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toUnmodifiableSet());
+    }
 }
@@ -0,0 +1,81 @@
+package ro.ticle.paula.spring.project.config;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+import org.springframework.session.web.http.CookieHttpSessionIdResolver;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.EnumSet;
+
+// Opt-in, without it sessions stay in the memory of the node that created them and need sticky load balancing
+@Configuration
+@ConditionalOnProperty(prefix = "session", name = "store", havingValue = "jdbc")
+public class JdbcSessionConfig {
+
+    // Sessions keep the cookie name of the container sessions, clients and the logout handler need no change
+    private static final String COOKIE_NAME = "JSESSIONID";
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration timeout;
+
+    // Deletes expired sessions, every node runs it and the statement is a no-op once another node did the work
+    @Value("${session.jdbc.cleanup-cron:0 * * * * *}")
+    private String cleanupCron;
+
+    @Value("${session.jdbc.last-access-write-interval:1m}")
+    private Duration lastAccessWriteInterval;
+
+    @Bean
+    public JdbcIndexedSessionRepository jdbcIndexedSessionRepository(JdbcTemplate jdbcTemplate,
+                                                                     PlatformTransactionManager transactionManager) {
+        JdbcIndexedSessionRepository repository = new JdbcIndexedSessionRepository(jdbcTemplate,
+                new TransactionTemplate(transactionManager));
+        repository.setDefaultMaxInactiveInterval(timeout);
+        // Attribute changes of a request are collected and written as one batch when the request completes
+        repository.setFlushMode(FlushMode.ON_SAVE);
+        repository.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+        repository.setCleanupCron(cleanupCron);
+        return repository;
+    }
+
+    @Bean
+    public LazyWriteSessionRepository<?> sessionRepository(JdbcIndexedSessionRepository jdbcIndexedSessionRepository) {
+        return new LazyWriteSessionRepository<>(jdbcIndexedSessionRepository, lastAccessWriteInterval);
+    }
+
+    // Picked up by maximumSessions(1), the sessions of a user are then looked up in the shared table
+    @Bean
+    public SessionRegistry sessionRegistry(LazyWriteSessionRepository<?> sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SessionRepositoryFilter<?>> sessionRepositoryFilter(
+            LazyWriteSessionRepository<?> sessionRepository) {
+        DefaultCookieSerializer cookieSerializer = new DefaultCookieSerializer();
+        cookieSerializer.setCookieName(COOKIE_NAME);
+        CookieHttpSessionIdResolver sessionIdResolver = new CookieHttpSessionIdResolver();
+        sessionIdResolver.setCookieSerializer(cookieSerializer);
+
+        SessionRepositoryFilter<?> filter = new SessionRepositoryFilter<>(sessionRepository);
+        filter.setHttpSessionIdResolver(sessionIdResolver);
+        FilterRegistrationBean<SessionRepositoryFilter<?>> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER);
+        registration.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR));
+        return registration;
+    }
+}
@@ -0,0 +1,139 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves a session only when it was created or changed during the request. Every request moves the last access
+ * time, writing it back each time would turn every authenticated read into a database write, so it is persisted
+ * at most once per write interval. A session may therefore expire up to one interval before its timeout.
+ */
+public class LazyWriteSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<LazyWriteSessionRepository.LazyWriteSession<S>> {
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final Duration lastAccessWriteInterval;
+
+    public LazyWriteSessionRepository(FindByIndexNameSessionRepository<S> delegate, Duration lastAccessWriteInterval) {
+        this.delegate = delegate;
+        this.lastAccessWriteInterval = lastAccessWriteInterval;
+    }
+
+    @Override
+    public LazyWriteSession<S> createSession() {
+        LazyWriteSession<S> session = new LazyWriteSession<>(delegate.createSession());
+        session.changed = true;
+        return session;
+    }
+
+    @Override
+    public void save(LazyWriteSession<S> session) {
+        Duration sinceLastWrite = Duration.between(session.persistedLastAccessedTime, session.getLastAccessedTime());
+        if (session.changed || sinceLastWrite.compareTo(lastAccessWriteInterval) >= 0) {
+            delegate.save(session.delegate);
+            session.changed = false;
+            session.persistedLastAccessedTime = session.getLastAccessedTime();
+        }
+    }
+
+    @Override
+    public LazyWriteSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session != null ? new LazyWriteSession<>(session) : null;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, LazyWriteSession<S>> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        Map<String, LazyWriteSession<S>> sessions = new LinkedHashMap<>();
+        delegate.findByIndexNameAndIndexValue(indexName, indexValue)
+                .forEach((id, session) -> sessions.put(id, new LazyWriteSession<>(session)));
+        return sessions;
+    }
+
+    public static final class LazyWriteSession<S extends Session> implements Session {
+
+        private final S delegate;
+        private Instant persistedLastAccessedTime;
+        private boolean changed;
+
+        private LazyWriteSession(S delegate) {
+            this.delegate = delegate;
+            this.persistedLastAccessedTime = delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
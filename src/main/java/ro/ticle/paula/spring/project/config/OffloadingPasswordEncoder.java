@@ -0,0 +1,150 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ro.ticle.paula.spring.project.exceptions.PasswordHashingUnavailableException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs hashing on a bounded executor, so at most its pool size of CPUs hash at once and a burst of logins or
+ * registrations is refused instead of occupying every request thread with hashing work.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    // CPU time of the hashes a thread handed to the executor, credited back to it once they completed
+    private static final ThreadLocal<long[]> OFFLOADED_CPU = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, long timeoutMillis) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return offload(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return offload(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only compares cost factors, cheap enough for the calling thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * CPU time of the current thread including the hashes it offloaded, the hashing threads do the work a
+     * caller would otherwise have spent itself.
+     */
+    public static long currentThreadCpuTime() {
+        return THREADS.getCurrentThreadCpuTime() + OFFLOADED_CPU.get()[0];
+    }
+
+    /**
+     * Hashes a batch on the executor, keeping as many hashes queued as the queue takes and waiting for the oldest
+     * one whenever it is full, so a bulk caller neither blocks threads of its own nor floods the queue.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Hashing<String>> hashes = new ArrayList<>(rawPasswords.size());
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                while (true) {
+                    try {
+                        hashes.add(submit(() -> delegate.encode(rawPassword)));
+                        break;
+                    } catch (RejectedExecutionException e) {
+                        // Nothing of this batch is queued, the queue is full of other callers' hashes
+                        if (encoded.size() == hashes.size()) {
+                            throw unavailable();
+                        }
+                        encoded.add(await(hashes.get(encoded.size())));
+                    }
+                }
+            }
+            while (encoded.size() < hashes.size()) {
+                encoded.add(await(hashes.get(encoded.size())));
+            }
+            return encoded;
+        } catch (RuntimeException e) {
+            hashes.forEach(hashing -> hashing.result().cancel(true));
+            throw e;
+        }
+    }
+
+    private <T> T offload(Supplier<T> hashing) {
+        try {
+            return await(submit(hashing));
+        } catch (RejectedExecutionException e) {
+            throw unavailable();
+        }
+    }
+
+    private <T> Hashing<T> submit(Supplier<T> hashing) {
+        AtomicLong cpu = new AtomicLong();
+        Future<T> result = executor.submit(() -> {
+            long cpuStart = THREADS.getCurrentThreadCpuTime();
+            try {
+                return hashing.get();
+            } finally {
+                cpu.set(THREADS.getCurrentThreadCpuTime() - cpuStart);
+            }
+        });
+        return new Hashing<>(result, cpu);
+    }
+
+    private <T> T await(Hashing<T> hashing) {
+        Future<T> result = hashing.result();
+        try {
+            T hashed = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            OFFLOADED_CPU.get()[0] += hashing.cpu().get();
+            return hashed;
+        } catch (TimeoutException | CancellationException e) {
+            result.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing timed out, try again later");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            OFFLOADED_CPU.get()[0] += hashing.cpu().get();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static PasswordHashingUnavailableException unavailable() {
+        return new PasswordHashingUnavailableException("Too many password hashing requests, try again later");
+    }
+
+    private record Hashing<T>(Future<T> result, AtomicLong cpu) {
+    }
+}
@@ -1,15 +1,63 @@
 package ro.ticle.paula.spring.project.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class PasswordBeanConfig {
 
-     @Bean
-     public BCryptPasswordEncoder passwordEncoder() {
-         return new BCryptPasswordEncoder(10);
-     }
+    private static final String BCRYPT = "bcrypt";
+
+    @Value("${security.password.target-hash-latency:250ms}")
+    private Duration targetHashLatency;
+
+    @Value("${security.password.minimum-cost:10}")
+    private int minimumCost;
+
+    @Value("${security.password.maximum-cost:14}")
+    private int maximumCost;
+
+    // Pins the cost and skips the startup calibration when set
+    @Value("${security.password.cost:#{null}}")
+    private Integer cost;
+
+    @Value("${security.password.hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
+    // New hashes are stored as {bcrypt} with the calibrated cost. Hashes without an id predate the delegating
+    // encoder and are still checked as BCrypt, a successful login then rewrites them like any lower cost hash.
+    @Bean(destroyMethod = "close")
+    public OffloadingPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int bcryptCost = cost != null ? cost : BCryptCostCalibrator.calibrate(targetHashLatency, minimumCost, maximumCost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(bcryptCost)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptCost));
+        return new OffloadingPasswordEncoder(encoder, hashingExecutor(meterRegistry), hashingTimeout.toMillis());
+    }
 
+    // Not a bean of its own, an Executor bean would replace the application task executor Spring Boot provides
+    private ExecutorService hashingExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(hashingThreads, hashingThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingQueueCapacity), new CustomizableThreadFactory("password-hashing-"));
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+    }
 }
@@ -0,0 +1,12 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tests run the @Scheduled jobs themselves, so they do not race with the data of a test
+@Configuration
+@EnableScheduling
+@Profile("!test")
+public class SchedulingConfig {
+}
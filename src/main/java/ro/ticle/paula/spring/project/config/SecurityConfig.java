@@ -2,27 +2,69 @@ package ro.ticle.paula.spring.project.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractAuthenticationFilterConfigurer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.util.StringUtils;
+import ro.ticle.paula.spring.project.exceptions.PasswordHashingUnavailableException;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HASHING_RETRY_AFTER_SECONDS = "1";
+
+    // Bearer requests are verified from the token signature alone, without a session or a user lookup on any node
+    @Bean
+    @Order(1)
+    public SecurityFilterChain tokenFilterChain(HttpSecurity http,
+                                                JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
+        http
+                .securityMatcher(new OrRequestMatcher(
+                        new AntPathRequestMatcher("/v1/login", "POST"),
+                        request -> StringUtils.startsWithIgnoreCase(request.getHeader(HttpHeaders.AUTHORIZATION), BEARER_PREFIX)
+                ))
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/v1/login").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter))
+                );
+        return http.build();
+    }
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
         http
+                .authenticationManager(hashingAwareAuthenticationManager(authenticationManager))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/v1/users/register").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
-                        .requestMatchers("/v1/login", "/v1/logout").permitAll()
+                        .requestMatchers("/v1/logout").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -42,11 +84,38 @@ public class SecurityConfig {
                 )
                 .formLogin(form -> form
                         .defaultSuccessUrl("/swagger-ui/index.html", true)
+                        .failureHandler(hashingAwareFailureHandler())
                         .permitAll()
                 );
         return http.build();
     }
 
+    // The login filter only handles AuthenticationException, anything else escapes the filter chain as a 500.
+    // /v1/login calls the manager itself and answers 503 through the exception's @ResponseStatus instead
+    private static AuthenticationManager hashingAwareAuthenticationManager(AuthenticationManager authenticationManager) {
+        return authentication -> {
+            try {
+                return authenticationManager.authenticate(authentication);
+            } catch (PasswordHashingUnavailableException e) {
+                throw new InternalAuthenticationServiceException(e.getMessage(), e);
+            }
+        };
+    }
+
+    private static AuthenticationFailureHandler hashingAwareFailureHandler() {
+        AuthenticationFailureHandler loginPageWithError = new SimpleUrlAuthenticationFailureHandler("/login?error");
+        return (request, response, exception) -> {
+            if (!(exception.getCause() instanceof PasswordHashingUnavailableException unavailable)) {
+                loginPageWithError.onAuthenticationFailure(request, response, exception);
+                return;
+            }
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, HASHING_RETRY_AFTER_SECONDS);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"message\":\"" + unavailable.getMessage() + "\"}");
+        };
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
@@ -0,0 +1,73 @@
+package ro.ticle.paula.spring.project.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+@Configuration
+public class TokenConfig {
+
+    public static final String ROLES_CLAIM = "roles";
+
+    private static final int MINIMUM_SECRET_BYTES = 32;
+
+    @Value("${security.token.secret:}")
+    private String secret;
+
+    @Bean
+    public SecretKey tokenSigningKey() {
+        return signingKey(secret);
+    }
+
+    // Anyone holding the key can mint a token with any roles, so a missing or weak key stops the startup
+    static SecretKey signingKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("security.token.secret is not set, provide it through SECURITY_TOKEN_SECRET");
+        }
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(secret.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("security.token.secret must be base64 encoded", e);
+        }
+        if (key.length < MINIMUM_SECRET_BYTES) {
+            throw new IllegalStateException("security.token.secret must be at least 256 bits for HS256");
+        }
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSigningKey) {
+        return NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+    }
+
+    // Authorities come from the token itself, so authenticated requests never load the user
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(ROLES_CLAIM);
+        authoritiesConverter.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return converter;
+    }
+}
@@ -0,0 +1,32 @@
+package ro.ticle.paula.spring.project.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+@Configuration
+public class UserDetailsCacheConfig {
+
+    @Value("${security.user-details-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${security.user-details-cache.expire-after-write:5m}")
+    private Duration expireAfterWrite;
+
+    @Bean
+    public Cache<String, UserDetails> userDetailsCache(MeterRegistry meterRegistry) {
+        Cache<String, UserDetails> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+}
@@ -1,9 +1,11 @@
 package ro.ticle.paula.spring.project.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
 import ro.ticle.paula.spring.project.model.request.CourseRequest;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 import ro.ticle.paula.spring.project.model.response.CourseResponse;
 import ro.ticle.paula.spring.project.service.CourseService;
 
@@ -20,9 +22,16 @@ public class CourseController {
     }
 
     @GetMapping
-    public Page<CourseResponse> getCourses(@RequestParam(defaultValue = "0") int page,
-                                          @RequestParam(defaultValue = "10") int size) {
-        return courseService.getCourses(page, size);
+    public PageResponse<CourseResponse> getCourses(@RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(defaultValue = "exact") String count) {
+        return courseService.getCourses(page, size, CountMode.from(count));
+    }
+
+    @GetMapping(params = "after")
+    public CursorPage<CourseResponse> getCoursesAfter(@RequestParam String after,
+                                                      @RequestParam(defaultValue = "10") int size) {
+        return courseService.getCoursesAfter(after, size);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,23 @@
+package ro.ticle.paula.spring.project.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ro.ticle.paula.spring.project.model.response.BulkEnrollmentResponse;
+import ro.ticle.paula.spring.project.service.EnrollmentService;
+
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class EnrollmentController {
+
+    private final EnrollmentService enrollmentService;
+
+    @PostMapping(value = "/v1/enrollments:bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkEnrollmentResponse bulkEnroll(InputStream ndjson) {
+        return enrollmentService.bulkEnroll(ndjson);
+    }
+
+}
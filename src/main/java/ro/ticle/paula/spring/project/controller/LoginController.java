@@ -0,0 +1,24 @@
+package ro.ticle.paula.spring.project.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ro.ticle.paula.spring.project.model.request.LoginRequest;
+import ro.ticle.paula.spring.project.model.response.TokenResponse;
+import ro.ticle.paula.spring.project.service.LoginService;
+
+@RestController
+@RequestMapping("/v1/login")
+@RequiredArgsConstructor
+public class LoginController {
+
+    private final LoginService loginService;
+
+    @PostMapping
+    public TokenResponse login(@Valid @RequestBody LoginRequest loginRequest) {
+        return loginService.login(loginRequest);
+    }
+}
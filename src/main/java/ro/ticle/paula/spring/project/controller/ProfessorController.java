@@ -2,10 +2,12 @@ package ro.ticle.paula.spring.project.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
 import ro.ticle.paula.spring.project.model.request.ProfessorRequest;
 import ro.ticle.paula.spring.project.model.request.ProfessorUpdateRequest;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 import ro.ticle.paula.spring.project.model.response.ProfessorResponse;
 import ro.ticle.paula.spring.project.service.ProfessorService;
 
@@ -24,9 +26,16 @@ public class ProfessorController {
     }
 
     @GetMapping
-    public Page<ProfessorResponse> getProfessors(@RequestParam(defaultValue = "0") int page,
-                                                 @RequestParam(defaultValue = "10") int size) {
-        return professorService.getProfessors(page, size);
+    public PageResponse<ProfessorResponse> getProfessors(@RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(defaultValue = "exact") String count) {
+        return professorService.getProfessors(page, size, CountMode.from(count));
+    }
+
+    @GetMapping(params = "after")
+    public CursorPage<ProfessorResponse> getProfessorsAfter(@RequestParam String after,
+                                                            @RequestParam(defaultValue = "10") int size) {
+        return professorService.getProfessorsAfter(after, size);
     }
 
     @GetMapping("/{id}")
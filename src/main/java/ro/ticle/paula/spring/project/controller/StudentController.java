@@ -2,12 +2,19 @@ package ro.ticle.paula.spring.project.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
+import ro.ticle.paula.spring.project.model.request.StudentDeleteRequest;
 import ro.ticle.paula.spring.project.model.request.StudentRequest;
+import ro.ticle.paula.spring.project.model.response.BulkStudentDeleteResponse;
+import ro.ticle.paula.spring.project.model.response.StudentImportResponse;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 import ro.ticle.paula.spring.project.model.response.StudentResponse;
+import ro.ticle.paula.spring.project.service.StudentImportService;
 import ro.ticle.paula.spring.project.service.StudentService;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -16,16 +23,29 @@ import java.util.UUID;
 public class StudentController {
 
      private final StudentService studentService;
+     private final StudentImportService studentImportService;
 
      @PostMapping
      public void addStudent(@Valid @RequestBody StudentRequest studentRequest) {
          studentService.addStudent(studentRequest);
      }
 
+     @PostMapping(value = "/import", consumes = "text/csv")
+     public StudentImportResponse importStudents(InputStream csv) {
+         return studentImportService.importStudents(csv);
+     }
+
      @GetMapping
-     public Page<StudentResponse> getStudents(@RequestParam(defaultValue = "0") int page,
-                                              @RequestParam(defaultValue = "10") int size) {
-         return studentService.getStudents(page, size);
+     public PageResponse<StudentResponse> getStudents(@RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "10") int size,
+                                                      @RequestParam(defaultValue = "exact") String count) {
+         return studentService.getStudents(page, size, CountMode.from(count));
+     }
+
+     @GetMapping(params = "after")
+     public CursorPage<StudentResponse> getStudentsAfter(@RequestParam String after,
+                                                         @RequestParam(defaultValue = "10") int size) {
+         return studentService.getStudentsAfter(after, size);
      }
 
      @GetMapping("/{id}")
@@ -38,4 +58,10 @@ public class StudentController {
          studentService.deleteStudent(id);
      }
 
+     // The ids travel in the body, 1000 of them in a query string are far over Tomcat's 8 KB request header limit
+     @PostMapping("/delete")
+     public BulkStudentDeleteResponse deleteStudents(@Valid @RequestBody StudentDeleteRequest studentDeleteRequest) {
+         return studentService.deleteStudents(studentDeleteRequest.ids());
+     }
+
 }
@@ -2,9 +2,13 @@ package ro.ticle.paula.spring.project.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
+import ro.ticle.paula.spring.project.model.request.RoleAssignmentRequest;
 import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
+import ro.ticle.paula.spring.project.model.response.RoleAssignmentResponse;
 import ro.ticle.paula.spring.project.model.response.UserResponse;
 import ro.ticle.paula.spring.project.service.UserService;
 
@@ -32,15 +36,34 @@ public class UserController {
         userService.removeRoleFromUser(username, role);
     }
 
+    @PostMapping("/roles:grant")
+    public RoleAssignmentResponse grantRole(@Valid @RequestBody RoleAssignmentRequest request) {
+        return userService.grantRoleToUsers(request);
+    }
+
+    @PostMapping("/roles:revoke")
+    public RoleAssignmentResponse revokeRole(@Valid @RequestBody RoleAssignmentRequest request) {
+        return userService.revokeRoleFromUsers(request);
+    }
+
     @GetMapping("/{id}")
     public UserResponse getUser(@PathVariable UUID id) {
         return userService.findUserById(id);
     }
 
     @GetMapping
-    public Page<UserResponse> getAllUsers(@RequestParam(defaultValue = "0") int page,
-                                          @RequestParam(defaultValue = "10") int size) {
-        return userService.getAllUsers(page, size);
+    public PageResponse<UserResponse> getAllUsers(@RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(defaultValue = "exact") String count,
+                                                  @RequestParam(required = false) String role) {
+        return userService.getAllUsers(page, size, CountMode.from(count), role);
+    }
+
+    @GetMapping(params = "after")
+    public CursorPage<UserResponse> getAllUsersAfter(@RequestParam String after,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String role) {
+        return userService.getAllUsersAfter(after, size, role);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,23 @@
+package ro.ticle.paula.spring.project.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ro.ticle.paula.spring.project.model.response.BulkUserResponse;
+import ro.ticle.paula.spring.project.service.UserProvisioningService;
+
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class UserProvisioningController {
+
+    private final UserProvisioningService userProvisioningService;
+
+    @PostMapping(value = "/v1/users:bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkUserResponse bulkRegister(InputStream ndjson) {
+        return userProvisioningService.bulkRegister(ndjson);
+    }
+
+}
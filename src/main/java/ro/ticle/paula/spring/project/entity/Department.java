@@ -2,12 +2,16 @@ package ro.ticle.paula.spring.project.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "departments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments")
 @Getter
 @Setter
 @Builder
@@ -16,7 +20,8 @@ import java.util.Set;
 public class Department {
 
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_id_seq")
+    @SequenceGenerator(name = "departments_id_seq", sequenceName = "departments_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, name = "name")
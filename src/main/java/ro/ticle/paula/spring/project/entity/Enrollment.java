@@ -0,0 +1,20 @@
+package ro.ticle.paula.spring.project.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.*;
+
+@Entity
+@Table(name = "enrollment")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Enrollment {
+
+    @EmbeddedId
+    private EnrollmentId id;
+
+}
@@ -2,7 +2,10 @@ package ro.ticle.paula.spring.project.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UuidGenerator;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -10,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "professors")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +22,7 @@ import java.util.UUID;
 public class Professor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(unique = true, nullable = false, name = "first_name")
@@ -37,8 +41,11 @@ public class Professor {
     @Builder.Default
     private Set<Course> courses = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
 }
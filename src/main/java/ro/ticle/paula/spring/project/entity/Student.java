@@ -3,12 +3,17 @@ package ro.ticle.paula.spring.project.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UuidGenerator;
 
+import java.time.Instant;
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
 @Table(name = "students")
+// Deleted students stay in the table until SoftDeletePurgeService removes them, every query skips them
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @Builder
@@ -17,7 +22,7 @@ import java.util.UUID;
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(unique = true, nullable = false, name = "first_name")
@@ -36,4 +41,7 @@ public class Student {
     @OneToOne(mappedBy = "student", cascade = CascadeType.ALL)
     private StudentProfile profile;
 
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
 }
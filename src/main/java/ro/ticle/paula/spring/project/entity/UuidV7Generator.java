@@ -0,0 +1,38 @@
+package ro.ticle.paula.spring.project.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562): a 48 bit Unix millisecond timestamp, a 12 bit sequence and
+ * 62 random bits. New ids land at the right edge of the primary and foreign key indexes instead of on random pages.
+ * The sequence counts ids created within the same millisecond, so ids from one process are strictly increasing.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Millisecond timestamp and sequence of the last id, the sequence carries into the timestamp when it overflows
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long timestampAndSequence = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSigBits = (timestampAndSequence & ~SEQUENCE_MASK) << 4
+                | 0x7000L
+                | timestampAndSequence & SEQUENCE_MASK;
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
@@ -0,0 +1,6 @@
+package ro.ticle.paula.spring.project.model.event;
+
+import java.util.Collection;
+
+public record UserDetailsChangedEvent(Collection<String> usernames) {
+}
@@ -0,0 +1,26 @@
+package ro.ticle.paula.spring.project.model.pagination;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+
+import java.util.Locale;
+
+public enum CountMode {
+    NONE,
+    ESTIMATE,
+    EXACT;
+
+    public static CountMode from(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new BadRequestException("count must be one of none, estimate, exact");
+    }
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
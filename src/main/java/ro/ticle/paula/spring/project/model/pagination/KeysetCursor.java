@@ -0,0 +1,50 @@
+package ro.ticle.paula.spring.project.model.pagination;
+
+import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public record KeysetCursor(String key, String id) {
+
+    private static final char SEPARATOR = '\n';
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        int separator = decoded.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new KeysetCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+    }
+
+    public static String encode(String key, Object id) {
+        String cursor = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public UUID uuidId() {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public Long longId() {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
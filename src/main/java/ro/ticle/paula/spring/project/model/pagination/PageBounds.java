@@ -0,0 +1,34 @@
+package ro.ticle.paula.spring.project.model.pagination;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+
+// Page parameters straight from the request, checked before they reach a query
+public final class PageBounds {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private PageBounds() {
+    }
+
+    public static PageRequest pageRequest(int page, int size) {
+        requireSize(size);
+        if (page < 0) {
+            throw new BadRequestException("page must not be negative");
+        }
+        return PageRequest.of(page, size);
+    }
+
+    // One row more than the page, see CursorPage.of
+    public static Limit keysetLimit(int size) {
+        requireSize(size);
+        return Limit.of(size + 1);
+    }
+
+    private static void requireSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
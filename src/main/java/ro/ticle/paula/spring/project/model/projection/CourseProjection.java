@@ -0,0 +1,11 @@
+package ro.ticle.paula.spring.project.model.projection;
+
+public interface CourseProjection {
+    Long getId();
+
+    String getTitle();
+
+    Long getDepartmentId();
+
+    String getDepartmentName();
+}
@@ -0,0 +1,9 @@
+package ro.ticle.paula.spring.project.model.projection;
+
+public interface EnrollmentBatchProjection {
+    Long getMatched();
+
+    Long getInserted();
+
+    Long[] getUnmatched();
+}
@@ -1,7 +1,5 @@
 package ro.ticle.paula.spring.project.model.projection;
 
-import ro.ticle.paula.spring.project.entity.Department;
-
 import java.util.UUID;
 
 public interface ProfessorProjection {
@@ -15,5 +13,7 @@ public interface ProfessorProjection {
 
     String getPhoneNumber();
 
-    Department getDepartment();
+    Long getDepartmentId();
+
+    String getDepartmentName();
 }
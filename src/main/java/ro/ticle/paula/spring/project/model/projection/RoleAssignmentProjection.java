@@ -0,0 +1,11 @@
+package ro.ticle.paula.spring.project.model.projection;
+
+import java.util.List;
+
+public interface RoleAssignmentProjection {
+    Long getMatched();
+
+    Long getChanged();
+
+    List<String> getMissing();
+}
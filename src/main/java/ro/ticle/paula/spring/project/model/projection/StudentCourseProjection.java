@@ -0,0 +1,9 @@
+package ro.ticle.paula.spring.project.model.projection;
+
+import java.util.UUID;
+
+public interface StudentCourseProjection {
+    UUID getStudentId();
+    Long getCourseId();
+    String getTitle();
+}
@@ -1,8 +1,5 @@
 package ro.ticle.paula.spring.project.model.projection;
 
-import ro.ticle.paula.spring.project.entity.Course;
-
-import java.util.Set;
 import java.util.UUID;
 
 public interface StudentProjection {
@@ -10,5 +7,4 @@ public interface StudentProjection {
     String getFirstName();
     String getLastName();
     String getEmail();
-    Set<Course> getCourses();
 }
@@ -1,8 +1,6 @@
 package ro.ticle.paula.spring.project.model.projection;
 
-import ro.ticle.paula.spring.project.entity.Role;
-
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserProjection {
@@ -11,5 +9,5 @@ public interface UserProjection {
     String getUsername();
     boolean getEnabled();
 
-    Set<Role> getRoles();
+    List<String> getRoles();
 }
@@ -1,4 +1,7 @@
 package ro.ticle.paula.spring.project.model.request;
 
-public record LoginRequest(String username, String password) {
-} 
\ No newline at end of file
+import jakarta.validation.constraints.NotEmpty;
+
+public record LoginRequest(@NotEmpty String username,
+                           @NotEmpty String password) {
+}
@@ -0,0 +1,10 @@
+package ro.ticle.paula.spring.project.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+public record RoleAssignmentRequest(@NotEmpty String role,
+                                    @NotEmpty @Size(max = 10000) Set<String> usernames) {
+}
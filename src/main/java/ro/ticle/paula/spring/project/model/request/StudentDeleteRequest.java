@@ -0,0 +1,9 @@
+package ro.ticle.paula.spring.project.model.request;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record StudentDeleteRequest(@NotNull List<UUID> ids) {
+}
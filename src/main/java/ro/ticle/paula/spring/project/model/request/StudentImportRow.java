@@ -0,0 +1,12 @@
+package ro.ticle.paula.spring.project.model.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotEmpty;
+
+public record StudentImportRow(@NotEmpty String firstName,
+                               @NotEmpty String lastName,
+                               @NotEmpty @Email String email,
+                               @NotEmpty String address,
+                               @NotEmpty String phoneNumber,
+                               String courseTitles) {
+}
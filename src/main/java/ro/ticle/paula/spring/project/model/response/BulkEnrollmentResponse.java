@@ -0,0 +1,9 @@
+package ro.ticle.paula.spring.project.model.response;
+
+import java.util.List;
+
+public record BulkEnrollmentResponse(long inserted,
+                                     long duplicates,
+                                     long rejected,
+                                     List<String> errors) {
+}
@@ -0,0 +1,5 @@
+package ro.ticle.paula.spring.project.model.response;
+
+public record BulkStudentDeleteResponse(long deleted,
+                                        long notFound) {
+}
@@ -0,0 +1,10 @@
+package ro.ticle.paula.spring.project.model.response;
+
+import java.util.List;
+
+public record BulkUserResponse(long created,
+                               long rejected,
+                               long elapsedMillis,
+                               double usersPerSecond,
+                               List<String> errors) {
+}
@@ -1,8 +1,6 @@
 package ro.ticle.paula.spring.project.model.response;
 
-import ro.ticle.paula.spring.project.entity.Department;
-
 public record CourseResponse(Long id,
                              String title,
-                             Department department) {
-} 
\ No newline at end of file
+                             DepartmentSummaryResponse department) {
+}
@@ -0,0 +1,5 @@
+package ro.ticle.paula.spring.project.model.response;
+
+public record CourseSummaryResponse(Long id,
+                                    String title) {
+}
@@ -0,0 +1,17 @@
+package ro.ticle.paula.spring.project.model.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content,
+                            int size,
+                            String nextCursor) {
+
+    // Expects one row more than the requested size, its presence means another page follows
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper, Function<E, String> cursor) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursor.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), page.size(), nextCursor);
+    }
+}
@@ -0,0 +1,10 @@
+package ro.ticle.paula.spring.project.model.response;
+
+public record DepartmentSummaryResponse(Long id,
+                                        String name) {
+
+    // Rows without a department carry null columns from the outer join
+    public static DepartmentSummaryResponse of(Long id, String name) {
+        return id == null ? null : new DepartmentSummaryResponse(id, name);
+    }
+}
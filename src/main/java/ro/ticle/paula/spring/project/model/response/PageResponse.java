@@ -0,0 +1,35 @@
+package ro.ticle.paula.spring.project.model.response;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+
+import java.util.List;
+
+public record PageResponse<T>(List<T> content,
+                              int page,
+                              int size,
+                              boolean hasNext,
+                              Long totalElements,
+                              Integer totalPages,
+                              CountMode totalType) {
+
+    public static <T> PageResponse<T> exact(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(), page.hasNext(),
+                page.getTotalElements(), page.getTotalPages(), CountMode.EXACT);
+    }
+
+    // Statistics can lag behind the table, the estimate never claims fewer rows than were already seen
+    public static <T> PageResponse<T> estimated(Slice<T> slice, long estimate) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        long total = Math.max(estimate, seen);
+        int totalPages = (int) Math.ceil((double) total / slice.getSize());
+        return new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                total, totalPages, CountMode.ESTIMATE);
+    }
+
+    public static <T> PageResponse<T> uncounted(Slice<T> slice) {
+        return new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                null, null, CountMode.NONE);
+    }
+}
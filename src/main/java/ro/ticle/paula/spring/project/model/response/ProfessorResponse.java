@@ -1,7 +1,5 @@
 package ro.ticle.paula.spring.project.model.response;
 
-import ro.ticle.paula.spring.project.entity.Department;
-
 import java.util.UUID;
 
 public record ProfessorResponse(UUID id,
@@ -9,13 +7,13 @@ public record ProfessorResponse(UUID id,
                                 String lastName,
                                 String email,
                                 String phoneNumber,
-                                Department department) {
+                                DepartmentSummaryResponse department) {
     public static ProfessorResponse convertToResponse(UUID id,
                                                 String firstName,
                                                 String lastName,
                                                 String email,
                                                 String phoneNumber,
-                                                Department department) {
+                                                DepartmentSummaryResponse department) {
         return new ProfessorResponse(id, firstName, lastName, email, phoneNumber, department);
     }
 }
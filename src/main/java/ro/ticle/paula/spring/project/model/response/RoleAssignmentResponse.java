@@ -0,0 +1,9 @@
+package ro.ticle.paula.spring.project.model.response;
+
+import java.util.List;
+
+public record RoleAssignmentResponse(String role,
+                                     long changed,
+                                     long unchanged,
+                                     List<String> notFound) {
+}
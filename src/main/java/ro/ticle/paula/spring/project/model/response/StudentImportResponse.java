@@ -0,0 +1,8 @@
+package ro.ticle.paula.spring.project.model.response;
+
+import java.util.List;
+
+public record StudentImportResponse(long imported,
+                                    long rejected,
+                                    List<String> errors) {
+}
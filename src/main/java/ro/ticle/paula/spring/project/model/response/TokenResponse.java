@@ -0,0 +1,6 @@
+package ro.ticle.paula.spring.project.model.response;
+
+public record TokenResponse(String accessToken,
+                            String tokenType,
+                            long expiresIn) {
+}
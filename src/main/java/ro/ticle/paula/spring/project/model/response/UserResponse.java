@@ -2,9 +2,8 @@ package ro.ticle.paula.spring.project.model.response;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
-import ro.ticle.paula.spring.project.entity.Role;
 
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
 
 @Builder
@@ -12,5 +11,5 @@ import java.util.UUID;
 public record UserResponse(UUID id,
                            String username,
                            Boolean enabled,
-                           Set<Role> roles) {
+                           List<String> roles) {
 }
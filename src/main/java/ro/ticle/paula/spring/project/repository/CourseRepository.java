@@ -1,22 +1,81 @@
 package ro.ticle.paula.spring.project.repository;
 
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ro.ticle.paula.spring.project.entity.Course;
+import ro.ticle.paula.spring.project.model.projection.CourseProjection;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    String SELECT_COURSES = """
+            SELECT c.id AS id, c.title AS title, d.id AS departmentId, d.name AS departmentName
+            FROM Course c
+            LEFT JOIN c.department d
+            """;
+
     Optional<Course> findByTitle(String title);
 
+    List<Course> findByTitleIn(Collection<String> titles);
+
+    @Query(value = SELECT_COURSES, countQuery = "SELECT count(c) FROM Course c")
+    Page<CourseProjection> findAllBy(Pageable pageable);
+
+    @Query(SELECT_COURSES)
+    Slice<CourseProjection> findSliceBy(Pageable pageable);
+
+    @Query(SELECT_COURSES + "WHERE c.id = :id")
+    Optional<CourseProjection> findCourseById(Long id);
+
+    // Returns only the rows created by this statement, titles that already exist are skipped
+    @Query(nativeQuery = true, value = """
+            INSERT INTO courses (title)
+            SELECT unnest(CAST(:titles AS varchar[]))
+            ON CONFLICT (title) WHERE deleted_at IS NULL DO NOTHING
+            RETURNING *
+            """)
+    List<Course> insertMissingTitles(String[] titles);
+
+    @Query(SELECT_COURSES + """
+            ORDER BY c.title, c.id
+            """)
+    List<CourseProjection> findFirstKeysetPage(Limit limit);
+
+    @Query(SELECT_COURSES + """
+            WHERE (c.title, c.id) > (:title, :id)
+            ORDER BY c.title, c.id
+            """)
+    List<CourseProjection> findKeysetPageAfter(String title, Long id, Limit limit);
+
+    // Keeps the courses of a professor that is deleted, they are taught by someone else later
+    @Modifying
+    @Query("""
+            UPDATE Course c
+            SET c.professor = NULL
+            WHERE c.professor.id = :professorId
+            """)
+    int unassignProfessor(UUID professorId);
+
+    // Enrollments stay until SoftDeletePurgeService removes the course
     @Modifying
     @Query("""
-            DELETE FROM Course c
+            UPDATE Course c
+            SET c.deletedAt = :deletedAt
             WHERE c.id = :id
+            AND c.deletedAt IS NULL
             """)
-    void deleteById(Long id);
+    int softDeleteById(Long id, Instant deletedAt);
 }
@@ -0,0 +1,66 @@
+package ro.ticle.paula.spring.project.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ro.ticle.paula.spring.project.entity.Enrollment;
+import ro.ticle.paula.spring.project.entity.EnrollmentId;
+import ro.ticle.paula.spring.project.model.projection.EnrollmentBatchProjection;
+import ro.ticle.paula.spring.project.model.projection.StudentCourseProjection;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId> {
+
+    // Without declared query spaces Hibernate evicts every second-level cache region after a native update
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "enrollment"))
+    @Query(nativeQuery = true, value = """
+            INSERT INTO enrollment (course_id, student_id)
+            SELECT unnest(CAST(:courseIds AS bigint[])), :studentId
+            ON CONFLICT DO NOTHING
+            """)
+    int enrollStudent(UUID studentId, Long[] courseIds);
+
+    // Inserts one chunk of (course, student) pairs, skipping pairs whose course or student does not exist.
+    // The 1-based positions of the skipped pairs are returned so callers can report them
+    @Query(nativeQuery = true, value = """
+            WITH input AS (
+                SELECT i.course_id, i.student_id, i.position
+                FROM unnest(CAST(:courseIds AS bigint[]), CAST(:studentIds AS uuid[]))
+                    WITH ORDINALITY AS i(course_id, student_id, position)
+            ), matched AS (
+                SELECT input.course_id, input.student_id, input.position
+                FROM input
+                JOIN courses c ON c.id = input.course_id AND c.deleted_at IS NULL
+                JOIN students s ON s.id = input.student_id AND s.deleted_at IS NULL
+            ), inserted AS (
+                INSERT INTO enrollment (course_id, student_id)
+                SELECT course_id, student_id FROM matched
+                ON CONFLICT DO NOTHING
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM matched) AS matched, (SELECT count(*) FROM inserted) AS inserted,
+                   ARRAY(SELECT input.position
+                         FROM input
+                         WHERE NOT EXISTS (SELECT 1 FROM matched WHERE matched.position = input.position)
+                         ORDER BY input.position) AS unmatched
+            """)
+    EnrollmentBatchProjection insertBatch(Long[] courseIds, UUID[] studentIds);
+
+    @Query("""
+            SELECT e.id.studentId AS studentId, c.id AS courseId, c.title AS title
+            FROM Enrollment e
+            JOIN Course c ON c.id = e.id.courseId
+            WHERE e.id.studentId IN :studentIds
+            ORDER BY c.title
+            """)
+    List<StudentCourseProjection> findCoursesByStudentIds(Collection<UUID> studentIds);
+}
@@ -1,8 +1,10 @@
 package ro.ticle.paula.spring.project.repository;
 
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,18 +12,50 @@ import org.springframework.stereotype.Repository;
 import ro.ticle.paula.spring.project.entity.Professor;
 import ro.ticle.paula.spring.project.model.projection.ProfessorProjection;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProfessorRepository extends JpaRepository<Professor, UUID> {
+
+    String SELECT_PROFESSORS = """
+            SELECT p.id AS id, p.firstName AS firstName, p.lastName AS lastName, p.email AS email,
+                   p.phoneNumber AS phoneNumber, d.id AS departmentId, d.name AS departmentName
+            FROM Professor p
+            LEFT JOIN p.department d
+            """;
+
     boolean existsByEmail(String email);
 
+    @Query(value = SELECT_PROFESSORS, countQuery = "SELECT count(p) FROM Professor p")
     Page<ProfessorProjection> findAllBy(Pageable pageable);
 
+    @Query(SELECT_PROFESSORS)
+    Slice<ProfessorProjection> findSliceBy(Pageable pageable);
+
+    @Query(SELECT_PROFESSORS + "WHERE p.id = :id")
+    Optional<ProfessorProjection> findProfessorById(UUID id);
+
+    @Query(SELECT_PROFESSORS + """
+            ORDER BY p.lastName, p.id
+            """)
+    List<ProfessorProjection> findFirstKeysetPage(Limit limit);
+
+    @Query(SELECT_PROFESSORS + """
+            WHERE (p.lastName, p.id) > (:lastName, :id)
+            ORDER BY p.lastName, p.id
+            """)
+    List<ProfessorProjection> findKeysetPageAfter(String lastName, UUID id, Limit limit);
+
+    // Courses have to be unassigned first, a course must not point to a professor that is no longer visible
     @Modifying
     @Query("""
-            DELETE FROM Professor p
+            UPDATE Professor p
+            SET p.deletedAt = :deletedAt
             WHERE p.id = :id
+            AND p.deletedAt IS NULL
             """)
-    void deleteById(UUID id);
+    int softDeleteById(UUID id, Instant deletedAt);
 }
@@ -1,8 +1,11 @@
 package ro.ticle.paula.spring.project.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.model.projection.RoleProjection;
@@ -12,13 +15,20 @@ import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
 
     boolean existsByName(String name);
 
     @Query("SELECT r FROM Role r")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<RoleProjection> findAllRoles();
 
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "roles"))
+    @Query(nativeQuery = true, value = "INSERT INTO roles (name) VALUES (:name) ON CONFLICT (name) DO NOTHING")
+    int insertIfAbsent(String name);
+
     @Modifying
     @Query("""
             DELETE FROM     Role r
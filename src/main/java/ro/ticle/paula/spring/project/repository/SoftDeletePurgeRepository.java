@@ -0,0 +1,117 @@
+package ro.ticle.paula.spring.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Repository
+@RequiredArgsConstructor
+public class SoftDeletePurgeRepository {
+
+    // In purge order, the rows referencing a deleted row go first so its own delete never hits a foreign key
+    public enum Step {
+        COURSE_ENROLLMENTS("enrollment", """
+                SELECT e.ctid::text
+                FROM courses c
+                         JOIN enrollment e ON e.course_id = c.id
+                WHERE c.deleted_at IS NOT NULL
+                LIMIT ? FOR UPDATE OF e SKIP LOCKED
+                """, """
+                SELECT count(*)
+                FROM courses c
+                         JOIN enrollment e ON e.course_id = c.id
+                WHERE c.deleted_at IS NOT NULL
+                """),
+        STUDENT_ENROLLMENTS("enrollment", """
+                SELECT e.ctid::text
+                FROM students s
+                         JOIN enrollment e ON e.student_id = s.id
+                WHERE s.deleted_at IS NOT NULL
+                LIMIT ? FOR UPDATE OF e SKIP LOCKED
+                """, """
+                SELECT count(*)
+                FROM students s
+                         JOIN enrollment e ON e.student_id = s.id
+                WHERE s.deleted_at IS NOT NULL
+                """),
+        // Profiles are removed with their student by ON DELETE CASCADE
+        STUDENTS("students", """
+                SELECT s.ctid::text
+                FROM students s
+                WHERE s.deleted_at IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM enrollment e WHERE e.student_id = s.id)
+                LIMIT ? FOR UPDATE SKIP LOCKED
+                """, "SELECT count(*) FROM students WHERE deleted_at IS NOT NULL"),
+        COURSES("courses", """
+                SELECT c.ctid::text
+                FROM courses c
+                WHERE c.deleted_at IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM enrollment e WHERE e.course_id = c.id)
+                LIMIT ? FOR UPDATE SKIP LOCKED
+                """, "SELECT count(*) FROM courses WHERE deleted_at IS NOT NULL"),
+        // Courses of a deleted professor are unassigned when it is deleted, only deleted courses still point to it
+        PROFESSORS("professors", """
+                SELECT p.ctid::text
+                FROM professors p
+                WHERE p.deleted_at IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM courses c WHERE c.professor_id = p.id)
+                LIMIT ? FOR UPDATE SKIP LOCKED
+                """, "SELECT count(*) FROM professors WHERE deleted_at IS NOT NULL");
+
+        private final String table;
+        private final String lockBatch;
+        private final String countBacklog;
+
+        Step(String table, String lockBatch, String countBacklog) {
+            this.table = table;
+            this.lockBatch = lockBatch;
+            this.countBacklog = countBacklog;
+        }
+    }
+
+    // lock_not_available, raised once lock_timeout expires and left uncategorized by the default exception translation
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Applies to the rest of the current transaction, waits for row locks are already avoided by SKIP LOCKED
+    public void setLockTimeout(Duration lockTimeout) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                lockTimeout.toMillis() + "ms");
+    }
+
+    // Locks up to batchSize rows that are not locked by another transaction and returns their physical row ids,
+    // which stay valid until the transaction ends because nobody else can update or delete a locked row
+    public List<String> lockBatch(Step step, int batchSize) {
+        return withLockTimeout(() -> jdbcTemplate.queryForList(step.lockBatch, String.class, batchSize));
+    }
+
+    // Deleting a student also locks its profile through the cascade, which can still wait for a lock
+    public int deleteBatch(Step step, List<String> rowIds) {
+        return withLockTimeout(() -> jdbcTemplate.update(
+                "DELETE FROM " + step.table + " WHERE ctid = ANY(CAST(CAST(? AS text[]) AS tid[]))",
+                (Object) rowIds.toArray(String[]::new)));
+    }
+
+    public long countBacklog(Step step) {
+        Long backlog = jdbcTemplate.queryForObject(step.countBacklog, Long.class);
+        return backlog == null ? 0 : backlog;
+    }
+
+    private static <T> T withLockTimeout(Supplier<T> statement) {
+        try {
+            return statement.get();
+        } catch (UncategorizedSQLException e) {
+            if (e.getSQLException() != null && LOCK_NOT_AVAILABLE.equals(e.getSQLException().getSQLState())) {
+                throw new CannotAcquireLockException(e.getMessage(), e.getSQLException());
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ro.ticle.paula.spring.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class StudentImportRepository {
+
+    private static final String COPY_TO_STAGING = """
+            COPY student_import_staging (import_id, row_number, first_name, last_name, email, address, phone_number, course_titles)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long copyToStaging(String csvRows) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_TO_STAGING, new StringReader(csvRows));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Freshly copied rows have no planner statistics, without them the merge joins fall back to nested loops
+    public void analyzeStaging() {
+        jdbcTemplate.execute("ANALYZE student_import_staging");
+    }
+
+    // Drops rows whose email is already registered or appears earlier in the same import
+    public List<Long> removeDuplicateEmails(UUID importId) {
+        return jdbcTemplate.queryForList("""
+                DELETE FROM student_import_staging st
+                WHERE st.import_id = ?
+                  AND (EXISTS (SELECT 1 FROM students s WHERE s.email = st.email AND s.deleted_at IS NULL)
+                    OR EXISTS (SELECT 1
+                               FROM student_import_staging d
+                               WHERE d.import_id = st.import_id
+                                 AND d.email = st.email
+                                 AND d.row_number < st.row_number))
+                RETURNING st.row_number
+                """, Long.class, importId);
+    }
+
+    public int mergeStudents(UUID importId) {
+        return jdbcTemplate.update("""
+                INSERT INTO students (id, first_name, last_name, email)
+                SELECT student_id, first_name, last_name, email
+                FROM student_import_staging
+                WHERE import_id = ?
+                ON CONFLICT (email) WHERE deleted_at IS NULL DO NOTHING
+                """, importId);
+    }
+
+    public int mergeProfiles(UUID importId) {
+        return jdbcTemplate.update("""
+                INSERT INTO student_profiles (id, address, phone_number, student_id)
+                SELECT uuid_generate_v7(), st.address, st.phone_number, st.student_id
+                FROM student_import_staging st
+                         JOIN students s ON s.id = st.student_id
+                WHERE st.import_id = ?
+                """, importId);
+    }
+
+    public int mergeCourses(UUID importId) {
+        return jdbcTemplate.update("""
+                INSERT INTO courses (title)
+                SELECT DISTINCT trim(t.title)
+                FROM student_import_staging st
+                         CROSS JOIN LATERAL unnest(string_to_array(st.course_titles, ';')) AS t(title)
+                WHERE st.import_id = ?
+                  AND trim(t.title) <> ''
+                ON CONFLICT (title) WHERE deleted_at IS NULL DO NOTHING
+                """, importId);
+    }
+
+    public int mergeEnrollments(UUID importId) {
+        return jdbcTemplate.update("""
+                INSERT INTO enrollment (course_id, student_id)
+                SELECT c.id, st.student_id
+                FROM student_import_staging st
+                         CROSS JOIN LATERAL unnest(string_to_array(st.course_titles, ';')) AS t(title)
+                         JOIN courses c ON c.title = trim(t.title) AND c.deleted_at IS NULL
+                         JOIN students s ON s.id = st.student_id
+                WHERE st.import_id = ?
+                ON CONFLICT DO NOTHING
+                """, importId);
+    }
+
+    public void clearStaging(UUID importId) {
+        jdbcTemplate.update("DELETE FROM student_import_staging WHERE import_id = ?", importId);
+    }
+}
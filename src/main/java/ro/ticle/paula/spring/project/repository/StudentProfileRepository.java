@@ -1,6 +1,7 @@
 package ro.ticle.paula.spring.project.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ro.ticle.paula.spring.project.entity.StudentProfile;
 
@@ -9,5 +10,12 @@ import java.util.UUID;
 
 @Repository
 public interface StudentProfileRepository extends JpaRepository<StudentProfile, UUID> {
+
+    // Joins the student so the profile of a deleted student is not found, the derived query only reads the foreign key
+    @Query("""
+            SELECT p FROM StudentProfile p
+            JOIN p.student s
+            WHERE s.id = :studentId
+            """)
     Optional<StudentProfile> findByStudentId(UUID studentId);
 }
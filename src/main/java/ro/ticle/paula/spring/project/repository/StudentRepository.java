@@ -1,8 +1,10 @@
 package ro.ticle.paula.spring.project.repository;
 
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,21 +12,47 @@ import org.springframework.stereotype.Repository;
 import ro.ticle.paula.spring.project.entity.Student;
 import ro.ticle.paula.spring.project.model.projection.StudentProjection;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, UUID> {
+
+    // Columns only, selecting the entity would load the profile of every student on the page one by one
+    String SELECT_STUDENTS = """
+            SELECT s.id AS id, s.firstName AS firstName, s.lastName AS lastName, s.email AS email
+            FROM Student s
+            """;
+
     boolean existsByEmail(String email);
 
     Page<StudentProjection> findAllBy(Pageable pageable);
 
+    Slice<StudentProjection> findSliceBy(Pageable pageable);
+
+    @Query(SELECT_STUDENTS + """
+            ORDER BY s.lastName, s.id
+            """)
+    List<StudentProjection> findFirstKeysetPage(Limit limit);
+
+    @Query(SELECT_STUDENTS + """
+            WHERE (s.lastName, s.id) > (:lastName, :id)
+            ORDER BY s.lastName, s.id
+            """)
+    List<StudentProjection> findKeysetPageAfter(String lastName, UUID id, Limit limit);
+
     Optional<StudentProjection> findStudentById(UUID id);
 
+    // Enrollments and the profile stay until SoftDeletePurgeService removes the student
     @Modifying
     @Query("""
-            DELETE FROM  Student s
-            WHERE s.id = :id
+            UPDATE Student s
+            SET s.deletedAt = :deletedAt
+            WHERE s.id IN :ids
+            AND s.deletedAt IS NULL
             """)
-    void deleteById(UUID id);
+    int softDeleteByIds(Collection<UUID> ids, Instant deletedAt);
 }
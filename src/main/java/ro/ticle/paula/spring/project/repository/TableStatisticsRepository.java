@@ -0,0 +1,24 @@
+package ro.ticle.paula.spring.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.OptionalLong;
+
+@Repository
+@RequiredArgsConstructor
+public class TableStatisticsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Row count kept by VACUUM/ANALYZE, empty while the table has never been analyzed
+    public OptionalLong estimatedRowCount(String table) {
+        Long estimate = jdbcTemplate.queryForObject("""
+                SELECT CAST(reltuples AS bigint)
+                FROM pg_class
+                WHERE oid = to_regclass(?)
+                """, Long.class, table);
+        return estimate == null || estimate < 0 ? OptionalLong.empty() : OptionalLong.of(estimate);
+    }
+}
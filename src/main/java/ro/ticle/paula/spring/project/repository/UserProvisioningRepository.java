@@ -0,0 +1,64 @@
+package ro.ticle.paula.spring.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class UserProvisioningRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<String> findExistingUsernames(String[] usernames) {
+        return jdbcTemplate.queryForList("""
+                SELECT username
+                FROM users
+                WHERE username = ANY(?)
+                """, String.class, (Object) usernames);
+    }
+
+    // A username registered concurrently since the existence check is skipped rather than failing the chunk
+    public void insertUsers(List<NewUser> users) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, username, password, enabled)
+                VALUES (?, ?, ?, true)
+                ON CONFLICT (username) DO NOTHING
+                """, users, users.size(), (ps, user) -> {
+            ps.setObject(1, user.id());
+            ps.setString(2, user.username());
+            ps.setString(3, user.password());
+        });
+    }
+
+    // Guarded by the user row, so roles are only granted to users the batch above actually inserted
+    public void insertUserRoles(List<NewUserRole> userRoles) {
+        if (userRoles.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users_roles (user_id, role_id)
+                SELECT u.id, ?
+                FROM users u
+                WHERE u.id = ?
+                """, userRoles, userRoles.size(), (ps, userRole) -> {
+            ps.setLong(1, userRole.roleId());
+            ps.setObject(2, userRole.userId());
+        });
+    }
+
+    // Batched statements may not report per-row counts, the inserted users are counted instead
+    public long countUsers(UUID[] ids) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ANY(?)", Long.class, (Object) ids);
+        return count == null ? 0 : count;
+    }
+
+    public record NewUser(UUID id, String username, String password) {
+    }
+
+    public record NewUserRole(UUID userId, Long roleId) {
+    }
+}
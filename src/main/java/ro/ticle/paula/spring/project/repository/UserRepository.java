@@ -1,26 +1,172 @@
 package ro.ticle.paula.spring.project.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ro.ticle.paula.spring.project.entity.User;
+import ro.ticle.paula.spring.project.model.projection.RoleAssignmentProjection;
 import ro.ticle.paula.spring.project.model.projection.UserProjection;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+    // Role names are aggregated per returned row, so a page of users is read with a single statement
+    String SELECT_USERS = """
+            SELECT u.id AS id, u.username AS username, u.enabled AS enabled,
+                   ARRAY(SELECT r.name
+                         FROM users_roles ur
+                                  JOIN roles r ON r.id = ur.role_id
+                         WHERE ur.user_id = u.id
+                         ORDER BY r.name) AS roles
+            FROM users u
+            """;
+
+    String WITH_ROLE = """
+            WHERE u.id IN (SELECT ur.user_id
+                           FROM users_roles ur
+                                    JOIN roles r ON r.id = ur.role_id
+                           WHERE r.name = :role)
+            """;
+
+    String COUNT_WITH_ROLE = """
+            SELECT count(*)
+            FROM users_roles ur
+                     JOIN roles r ON r.id = ur.role_id
+            WHERE r.name = :role
+            """;
+
+    String ORDER_BY_USERNAME = """
+            ORDER BY u.username, u.id
+            """;
+
+    // Resolves the requested usernames once, the grant and revoke statements below then only touch users_roles
+    String TARGET_USERS = """
+            WITH requested AS (
+                SELECT DISTINCT unnest(CAST(:usernames AS text[])) AS username
+            ), target AS (
+                SELECT u.id, u.username
+                FROM users u
+                JOIN requested ON requested.username = u.username
+            )
+            """;
+
+    String ASSIGNMENT_RESULT = """
+            SELECT (SELECT count(*) FROM target) AS matched,
+                   (SELECT count(*) FROM changed) AS changed,
+                   ARRAY(SELECT requested.username
+                         FROM requested
+                         WHERE NOT EXISTS (SELECT 1 FROM target WHERE target.username = requested.username)
+                         ORDER BY requested.username) AS missing
+            """;
+
     Optional<User> findByUsername(String username);
 
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(UUID id);
+
+    @Query("SELECT u.username FROM User u JOIN u.roles r WHERE r.name = :roleName")
+    List<String> findUsernamesByRoleName(String roleName);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + "WHERE u.id = :id")
     Optional<UserProjection> findUserById(UUID id);
 
-    @Query("SELECT u FROM User u")
+    @Query(nativeQuery = true, value = SELECT_USERS + ORDER_BY_USERNAME,
+            countQuery = "SELECT count(*) FROM users")
     Page<UserProjection> findAllUsers(Pageable pageable);
 
+    @Query(nativeQuery = true, value = SELECT_USERS + ORDER_BY_USERNAME)
+    Slice<UserProjection> findUserSlice(Pageable pageable);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + WITH_ROLE + ORDER_BY_USERNAME,
+            countQuery = COUNT_WITH_ROLE)
+    Page<UserProjection> findAllUsersWithRole(String role, Pageable pageable);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + WITH_ROLE + ORDER_BY_USERNAME)
+    Slice<UserProjection> findUserSliceWithRole(String role, Pageable pageable);
+
+    @Query(nativeQuery = true, value = COUNT_WITH_ROLE)
+    long countWithRole(String role);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + ORDER_BY_USERNAME)
+    List<UserProjection> findFirstKeysetPage(Limit limit);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + """
+            WHERE (u.username, u.id) > (:username, :id)
+            """ + ORDER_BY_USERNAME)
+    List<UserProjection> findKeysetPageAfter(String username, UUID id, Limit limit);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + WITH_ROLE + ORDER_BY_USERNAME)
+    List<UserProjection> findFirstKeysetPageWithRole(String role, Limit limit);
+
+    @Query(nativeQuery = true, value = SELECT_USERS + WITH_ROLE + """
+            AND (u.username, u.id) > (:username, :id)
+            """ + ORDER_BY_USERNAME)
+    List<UserProjection> findKeysetPageAfterWithRole(String role, String username, UUID id, Limit limit);
+
+    @Query(nativeQuery = true, value = TARGET_USERS + """
+            , changed AS (
+                INSERT INTO users_roles (user_id, role_id)
+                SELECT target.id, :roleId FROM target
+                ON CONFLICT DO NOTHING
+                RETURNING user_id
+            )
+            """ + ASSIGNMENT_RESULT)
+    RoleAssignmentProjection grantRole(String[] usernames, Long roleId);
+
+    @Query(nativeQuery = true, value = TARGET_USERS + """
+            , changed AS (
+                DELETE FROM users_roles ur
+                USING target
+                WHERE ur.user_id = target.id
+                  AND ur.role_id = :roleId
+                RETURNING ur.user_id
+            )
+            """ + ASSIGNMENT_RESULT)
+    RoleAssignmentProjection revokeRole(String[] usernames, Long roleId);
+
+    boolean existsByUsername(String username);
+
+    // Held until the surrounding transaction ends, false when another session holds the lock
+    @Query(nativeQuery = true, value = "SELECT pg_try_advisory_xact_lock(hashtext(:name))")
+    boolean tryTransactionLock(String name);
+
+    // The role is only granted to a user this statement creates, an existing user keeps the roles it has
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(nativeQuery = true, value = """
+            WITH created AS (
+                INSERT INTO users (id, username, password, enabled)
+                VALUES (:id, :username, :password, true)
+                ON CONFLICT (username) DO NOTHING
+                RETURNING id
+            )
+            INSERT INTO users_roles (user_id, role_id)
+            SELECT created.id, r.id
+            FROM created
+                     JOIN roles r ON r.name = :roleName
+            """)
+    int insertIfAbsentWithRole(UUID id, String username, String password, String roleName);
+
+    @Modifying
+    @Query("""
+            UPDATE User u
+            SET u.password = :password
+            WHERE u.username = :username
+            """)
+    int updatePassword(String username, String password);
+
     @Modifying
     @Query("""
             DELETE FROM User u
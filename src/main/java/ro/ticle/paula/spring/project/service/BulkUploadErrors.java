@@ -0,0 +1,38 @@
+package ro.ticle.paula.spring.project.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Counts the records a bulk upload rejected, keeping the reasons of the first ones for the response
+final class BulkUploadErrors {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final String unit;
+    private final List<String> errors = new ArrayList<>();
+    private long rejected;
+
+    BulkUploadErrors(String unit) {
+        this.unit = unit;
+    }
+
+    void reject(long position, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(unit + " " + position + ": " + reason);
+        }
+    }
+
+    // Records the database dropped without saying which, e.g. ones inserted concurrently by another request
+    void rejectUnreported(long count) {
+        rejected += count;
+    }
+
+    long rejected() {
+        return rejected;
+    }
+
+    List<String> errors() {
+        return errors;
+    }
+}
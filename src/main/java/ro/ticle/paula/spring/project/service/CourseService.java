@@ -3,17 +3,25 @@ package ro.ticle.paula.spring.project.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ro.ticle.paula.spring.project.entity.Course;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.projection.CourseProjection;
 import ro.ticle.paula.spring.project.model.request.CourseRequest;
 import ro.ticle.paula.spring.project.model.response.CourseResponse;
 import ro.ticle.paula.spring.project.repository.CourseRepository;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.pagination.PageBounds;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.DepartmentSummaryResponse;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
+import java.time.Instant;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.List;
 import java.util.Set;
 
 @Slf4j
@@ -22,20 +30,23 @@ import java.util.Set;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final RowCountEstimator rowCountEstimator;
 
+    @Transactional
     public Set<Course> getOrCreateCourses(Set<String> courseTitles) {
-        Set<Course> courses = new HashSet<>();
-        for (String title : courseTitles) {
-            Optional<Course> existing = courseRepository.findByTitle(title);
-            if (existing.isPresent()) {
-                log.info("Course with title {} already exists", title);
-                courses.add(existing.get());
-            } else {
-                log.info("Creating new course with title {}", title);
-                Course course = new Course();
-                course.setTitle(title);
-                courses.add(courseRepository.save(course));
-            }
+        Set<Course> courses = new HashSet<>(courseRepository.findByTitleIn(courseTitles));
+        Set<String> missingTitles = new HashSet<>(courseTitles);
+        courses.forEach(course -> missingTitles.remove(course.getTitle()));
+        if (missingTitles.isEmpty()) {
+            return courses;
+        }
+        log.info("Creating new courses with titles {}", missingTitles);
+        List<Course> createdCourses = courseRepository.insertMissingTitles(missingTitles.toArray(String[]::new));
+        courses.addAll(createdCourses);
+        if (createdCourses.size() < missingTitles.size()) {
+            // Another transaction created some of the titles between the lookup and the insert
+            createdCourses.forEach(course -> missingTitles.remove(course.getTitle()));
+            courses.addAll(courseRepository.findByTitleIn(missingTitles));
         }
         return courses;
     }
@@ -51,27 +62,52 @@ public class CourseService {
         courseRepository.save(course);
     }
 
-    public Page<CourseResponse> getCourses(int page, int size) {
-        log.info("Get courses from page {} of size {}", page, size);
-        return courseRepository.findAll(PageRequest.of(page, size))
-                .map(course -> new CourseResponse(course.getId(), course.getTitle(), course.getDepartment()));
+    @Transactional
+    public PageResponse<CourseResponse> getCourses(int page, int size, CountMode countMode) {
+        log.info("Get courses from page {} of size {} counting {}", page, size, countMode);
+        PageRequest pageRequest = PageBounds.pageRequest(page, size);
+        return switch (countMode) {
+            case EXACT -> PageResponse.exact(courseRepository.findAllBy(pageRequest)
+                    .map(CourseService::buildCourseResponse));
+            case ESTIMATE -> PageResponse.estimated(courseRepository.findSliceBy(pageRequest)
+                    .map(CourseService::buildCourseResponse), rowCountEstimator.estimate("courses", courseRepository::count));
+            case NONE -> PageResponse.uncounted(courseRepository.findSliceBy(pageRequest)
+                    .map(CourseService::buildCourseResponse));
+        };
+    }
+
+    @Transactional
+    public CursorPage<CourseResponse> getCoursesAfter(String after, int size) {
+        log.info("Get courses after cursor {} of size {}", after, size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Limit limit = PageBounds.keysetLimit(size);
+        List<CourseProjection> courses = cursor == null
+                ? courseRepository.findFirstKeysetPage(limit)
+                : courseRepository.findKeysetPageAfter(cursor.key(), cursor.longId(), limit);
+        return CursorPage.of(courses, size, CourseService::buildCourseResponse,
+                course -> KeysetCursor.encode(course.getTitle(), course.getId()));
     }
 
+    @Transactional
     public CourseResponse getCourse(Long id) {
         log.info("Get course with id {}", id);
-        return courseRepository.findById(id)
-                .map(course -> new CourseResponse(course.getId(), course.getTitle(), course.getDepartment()))
+        return courseRepository.findCourseById(id)
+                .map(CourseService::buildCourseResponse)
                 .orElseThrow(() -> new BadRequestException("Course not found with id " + id));
     }
 
     @Transactional
     public void deleteCourse(Long id) {
-        if (!courseRepository.existsById(id)) {
+        log.info("Delete course with id {}", id);
+        if (courseRepository.softDeleteById(id, Instant.now()) == 0) {
             log.error("Course with id {} does not exist", id);
             throw new BadRequestException("Course does not exist");
         }
-        log.info("Delete course with id {}", id);
-        courseRepository.deleteById(id);
         log.info("Course with id {} deleted", id);
     }
+
+    private static CourseResponse buildCourseResponse(CourseProjection course) {
+        return new CourseResponse(course.getId(), course.getTitle(),
+                DepartmentSummaryResponse.of(course.getDepartmentId(), course.getDepartmentName()));
+    }
 }
@@ -0,0 +1,88 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.model.projection.EnrollmentBatchProjection;
+import ro.ticle.paula.spring.project.model.response.BulkEnrollmentResponse;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EnrollmentService {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${enrollment.bulk.batch-size:1000}")
+    private int batchSize;
+
+    public BulkEnrollmentResponse bulkEnroll(InputStream ndjson) {
+        BulkEnrollmentSummary summary = new BulkEnrollmentSummary();
+        List<Long> courseIds = new ArrayList<>(batchSize);
+        List<UUID> studentIds = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+        NdjsonUpload.read(objectMapper, ndjson, "enrollment upload", summary.errors, (line, parser) -> {
+            JsonNode enrollment = parser.readValueAsTree();
+            JsonNode courseId = enrollment.get("courseId");
+            JsonNode studentId = enrollment.get("studentId");
+            // canConvertToLong alone accepts 1.5, which asLong would truncate to course 1
+            if (courseId == null || !courseId.isIntegralNumber() || !courseId.canConvertToLong()
+                    || studentId == null || !studentId.isTextual()) {
+                summary.errors.reject(line, "courseId and studentId are required");
+                return;
+            }
+            try {
+                studentIds.add(UUID.fromString(studentId.asText()));
+            } catch (IllegalArgumentException e) {
+                summary.errors.reject(line, "studentId is not a valid UUID");
+                return;
+            }
+            courseIds.add(courseId.asLong());
+            lines.add(line);
+            if (courseIds.size() == batchSize) {
+                writeChunk(courseIds, studentIds, lines, summary);
+            }
+        });
+        writeChunk(courseIds, studentIds, lines, summary);
+        log.info("Bulk enrollment finished: {} inserted, {} duplicates, {} rejected",
+                summary.inserted, summary.duplicates, summary.errors.rejected());
+        return new BulkEnrollmentResponse(summary.inserted, summary.duplicates, summary.errors.rejected(),
+                summary.errors.errors());
+    }
+
+    private void writeChunk(List<Long> courseIds, List<UUID> studentIds, List<Long> lines,
+                            BulkEnrollmentSummary summary) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        EnrollmentBatchProjection result = transactionTemplate.execute(status -> enrollmentRepository.insertBatch(
+                courseIds.toArray(Long[]::new),
+                studentIds.toArray(UUID[]::new)));
+        summary.inserted += result.getInserted();
+        summary.duplicates += result.getMatched() - result.getInserted();
+        for (Long position : result.getUnmatched()) {
+            summary.errors.reject(lines.get(position.intValue() - 1), "course or student not found");
+        }
+        courseIds.clear();
+        studentIds.clear();
+        lines.clear();
+    }
+
+    private static final class BulkEnrollmentSummary {
+        private long inserted;
+        private long duplicates;
+        private final BulkUploadErrors errors = new BulkUploadErrors("line");
+    }
+}
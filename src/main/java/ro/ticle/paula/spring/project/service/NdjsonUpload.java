@@ -0,0 +1,42 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Streams an NDJSON upload one record at a time. A malformed record is reported and ends the upload,
+// the records read before it are kept
+@Slf4j
+final class NdjsonUpload {
+
+    @FunctionalInterface
+    interface RecordHandler {
+        void handle(long line, JsonParser parser) throws IOException;
+    }
+
+    private NdjsonUpload() {
+    }
+
+    static void read(ObjectMapper objectMapper, InputStream ndjson, String uploadName,
+                     BulkUploadErrors errors, RecordHandler handler) {
+        long line = 0;
+        try (JsonParser parser = objectMapper.createParser(ndjson)) {
+            while (parser.nextToken() != null) {
+                line = parser.currentTokenLocation().getLineNr();
+                handler.handle(line, parser);
+            }
+        } catch (JsonProcessingException e) {
+            long errorLine = e.getLocation() != null ? e.getLocation().getLineNr() : line + 1;
+            log.error("Malformed record in {} at line {}", uploadName, errorLine, e);
+            errors.reject(errorLine, "malformed JSON, remaining input was skipped");
+        } catch (IOException e) {
+            log.error("Could not read {}", uploadName, e);
+            throw new BadRequestException("Could not read " + uploadName);
+        }
+    }
+}
@@ -3,7 +3,7 @@ package ro.ticle.paula.spring.project.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ro.ticle.paula.spring.project.entity.Course;
@@ -13,9 +13,19 @@ import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.request.ProfessorRequest;
 import ro.ticle.paula.spring.project.model.request.ProfessorUpdateRequest;
 import ro.ticle.paula.spring.project.model.response.ProfessorResponse;
+import ro.ticle.paula.spring.project.repository.CourseRepository;
 import ro.ticle.paula.spring.project.repository.DepartmentRepository;
 import ro.ticle.paula.spring.project.repository.ProfessorRepository;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.pagination.PageBounds;
+import ro.ticle.paula.spring.project.model.projection.ProfessorProjection;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.DepartmentSummaryResponse;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -28,7 +38,9 @@ public class ProfessorService {
     private static final String PROFESSOR_WITH_ID_DOES_NOT_EXIST = "Professor with id [{}] does not exist";
 
     private final ProfessorRepository professorRepository;
+    private final RowCountEstimator rowCountEstimator;
     private final DepartmentRepository departmentRepository;
+    private final CourseRepository courseRepository;
 
     @Transactional
     public void addProfessor(ProfessorRequest professorRequest) {
@@ -44,40 +56,49 @@ public class ProfessorService {
         log.info("Professor added successfully");
     }
 
-    public Page<ProfessorResponse> getProfessors(int page, int size) {
-        log.info("Fetching professors");
-        return professorRepository.findAllBy(PageRequest.of(page, size))
-                .map(professorProjection -> ProfessorResponse.convertToResponse(
-                        professorProjection.getId(),
-                        professorProjection.getFirstName(),
-                        professorProjection.getLastName(),
-                        professorProjection.getEmail(),
-                        professorProjection.getPhoneNumber(),
-                        professorProjection.getDepartment()
-                ));
+    @Transactional
+    public PageResponse<ProfessorResponse> getProfessors(int page, int size, CountMode countMode) {
+        log.info("Fetching professors counting {}", countMode);
+        PageRequest pageRequest = PageBounds.pageRequest(page, size);
+        return switch (countMode) {
+            case EXACT -> PageResponse.exact(professorRepository.findAllBy(pageRequest)
+                    .map(ProfessorService::buildProfessorResponse));
+            case ESTIMATE -> PageResponse.estimated(professorRepository.findSliceBy(pageRequest)
+                    .map(ProfessorService::buildProfessorResponse), rowCountEstimator.estimate("professors", professorRepository::count));
+            case NONE -> PageResponse.uncounted(professorRepository.findSliceBy(pageRequest)
+                    .map(ProfessorService::buildProfessorResponse));
+        };
     }
 
+    @Transactional
+    public CursorPage<ProfessorResponse> getProfessorsAfter(String after, int size) {
+        log.info("Fetching professors after cursor [{}]", after);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Limit limit = PageBounds.keysetLimit(size);
+        List<ProfessorProjection> professors = cursor == null
+                ? professorRepository.findFirstKeysetPage(limit)
+                : professorRepository.findKeysetPageAfter(cursor.key(), cursor.uuidId(), limit);
+        return CursorPage.of(professors, size, ProfessorService::buildProfessorResponse,
+                professor -> KeysetCursor.encode(professor.getLastName(), professor.getId()));
+    }
+
+    @Transactional
     public ProfessorResponse getProfessor(UUID id) {
         log.info("Fetching professor with id: [{}]", id);
-        return professorRepository.findById(id)
-                .map(professor -> ProfessorResponse.convertToResponse(professor.getId(),
-                        professor.getFirstName(),
-                        professor.getLastName(),
-                        professor.getEmail(),
-                        professor.getPhoneNumber(),
-                        professor.getDepartment()))
+        return professorRepository.findProfessorById(id)
+                .map(ProfessorService::buildProfessorResponse)
                 .orElseThrow(() -> new BadRequestException("Professor not found"));
     }
 
     @Transactional
     public void deleteProfessor(UUID id) {
-        if (!professorRepository.existsById(id)) {
+        log.info("Deleting professor with id: [{}]", id);
+        int courses = courseRepository.unassignProfessor(id);
+        if (professorRepository.softDeleteById(id, Instant.now()) == 0) {
             log.error(PROFESSOR_WITH_ID_DOES_NOT_EXIST, id);
             throw new BadRequestException("Professor not found");
         }
-        log.info("Deleting professor with id: [{}]", id);
-        professorRepository.deleteById(id);
-        log.info("Professor deleted successfully");
+        log.info("Professor deleted successfully, {} courses unassigned", courses);
     }
 
     @Transactional
@@ -97,6 +118,17 @@ public class ProfessorService {
         log.info("Professor updated successfully");
     }
 
+    private static ProfessorResponse buildProfessorResponse(ProfessorProjection professorProjection) {
+        return ProfessorResponse.convertToResponse(
+                professorProjection.getId(),
+                professorProjection.getFirstName(),
+                professorProjection.getLastName(),
+                professorProjection.getEmail(),
+                professorProjection.getPhoneNumber(),
+                DepartmentSummaryResponse.of(professorProjection.getDepartmentId(), professorProjection.getDepartmentName())
+        );
+    }
+
     private static Professor buildProfessorFromRequest(ProfessorRequest professorRequest, Department department) {
         Set<Course> courses = professorRequest.courseTitles().stream()
                 .map(title -> {
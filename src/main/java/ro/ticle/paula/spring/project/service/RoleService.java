@@ -3,12 +3,15 @@ package ro.ticle.paula.spring.project.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
 import ro.ticle.paula.spring.project.model.response.RoleResponse;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.request.RoleRequest;
 import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserRepository;
 
 import java.util.List;
 
@@ -18,6 +21,8 @@ import java.util.List;
 public class RoleService {
 
     private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public RoleResponse createRole(RoleRequest roleRequest) {
@@ -36,6 +41,7 @@ public class RoleService {
                 .build();
     }
 
+    @Transactional
     public List<RoleResponse> getAllRoles() {
         log.info("Fetching all roles");
         return roleRepository.findAllRoles()
@@ -50,7 +56,11 @@ public class RoleService {
     @Transactional
     public void deleteRoleByName(String roleName) {
         roleRepository.findByName(roleName)
-                .ifPresentOrElse(role -> roleRepository.deleteRoleByName(roleName),
+                .ifPresentOrElse(role -> {
+                            List<String> usernames = userRepository.findUsernamesByRoleName(roleName);
+                            roleRepository.deleteRoleByName(roleName);
+                            eventPublisher.publishEvent(new UserDetailsChangedEvent(usernames));
+                        },
                         () -> {
                             throw new BadRequestException("Role with name " + roleName + " does not exist");
                         }
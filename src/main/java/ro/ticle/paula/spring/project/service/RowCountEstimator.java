@@ -0,0 +1,43 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ro.ticle.paula.spring.project.repository.TableStatisticsRepository;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Service
+public class RowCountEstimator {
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+    // Bounded, the keys come from request parameters
+    private final Cache<String, Long> exactCounts;
+
+    public RowCountEstimator(TableStatisticsRepository tableStatisticsRepository,
+                             @Value("${pagination.estimate.count-cache-ttl:30s}") Duration countCacheTtl,
+                             @Value("${pagination.estimate.count-cache-size:1000}") long countCacheSize) {
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.exactCounts = Caffeine.newBuilder()
+                .maximumSize(countCacheSize)
+                .expireAfterWrite(countCacheTtl)
+                .build();
+    }
+
+    public long estimate(String table, LongSupplier exactCount) {
+        return tableStatisticsRepository.estimatedRowCount(table)
+                .orElseGet(() -> cachedCount(table, exactCount));
+    }
+
+    // Exact count shared for the cache TTL, for filtered listings that planner statistics cannot estimate
+    public long cachedCount(String key, LongSupplier exactCount) {
+        return exactCounts.get(key, ignored -> {
+            log.debug("Counting rows for {}", key);
+            return exactCount.getAsLong();
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.request.StudentImportRow;
+import ro.ticle.paula.spring.project.model.response.StudentImportResponse;
+import ro.ticle.paula.spring.project.repository.StudentImportRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudentImportService {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private final StudentImportRepository studentImportRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${student.import.chunk-size:10000}")
+    private int chunkSize;
+
+    // Each chunk is committed on its own so a slow upload does not hold a pooled connection and an open
+    // transaction for its whole duration, only the final merge runs in a single transaction
+    public StudentImportResponse importStudents(InputStream csv) {
+        UUID importId = UUID.randomUUID();
+        try {
+            return stageAndMerge(importId, csv);
+        } catch (RuntimeException e) {
+            log.error("Student import {} failed, clearing its staged rows", importId);
+            try {
+                transactionTemplate.executeWithoutResult(status -> studentImportRepository.clearStaging(importId));
+            } catch (RuntimeException cleanupFailure) {
+                e.addSuppressed(cleanupFailure);
+            }
+            throw e;
+        }
+    }
+
+    private StudentImportResponse stageAndMerge(UUID importId, InputStream csv) {
+        long startTime = System.nanoTime();
+        BulkUploadErrors errors = new BulkUploadErrors("row");
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        long staged = 0;
+        log.info("Student import {} started", importId);
+        try (MappingIterator<StudentImportRow> rows = CSV_MAPPER.readerFor(StudentImportRow.class)
+                .with(CSV_SCHEMA)
+                .readValues(csv)) {
+            while (rows.hasNextValue()) {
+                rowNumber++;
+                chunk.add(new NumberedRow(rowNumber, rows.nextValue()));
+                if (chunk.size() == chunkSize) {
+                    staged += stageChunk(importId, chunk, errors);
+                    log.info("Student import {}: {} rows read, {} staged", importId, rowNumber, staged);
+                }
+            }
+        } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+            log.error("Malformed CSV in student import {} after row {}", importId, rowNumber, e);
+            errors.reject(rowNumber + 1, "malformed CSV, remaining input was skipped");
+        } catch (IOException e) {
+            log.error("Could not read student import {}", importId, e);
+            throw new BadRequestException("Could not read student import");
+        }
+        staged += stageChunk(importId, chunk, errors);
+
+        long totalStaged = staged;
+        long imported = transactionTemplate.execute(status -> {
+            studentImportRepository.analyzeStaging();
+            List<Long> duplicateRows = studentImportRepository.removeDuplicateEmails(importId);
+            duplicateRows.forEach(row -> errors.reject(row, "email already exists"));
+            long merged = studentImportRepository.mergeStudents(importId);
+            // Rows whose email was registered concurrently after the duplicate check
+            errors.rejectUnreported(totalStaged - duplicateRows.size() - merged);
+            studentImportRepository.mergeProfiles(importId);
+            studentImportRepository.mergeCourses(importId);
+            studentImportRepository.mergeEnrollments(importId);
+            studentImportRepository.clearStaging(importId);
+            return merged;
+        });
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        log.info("Student import {} finished: {} imported, {} rejected in {} ms",
+                importId, imported, errors.rejected(), elapsedMillis);
+        return new StudentImportResponse(imported, errors.rejected(), errors.errors());
+    }
+
+    private long stageChunk(UUID importId, List<NumberedRow> chunk, BulkUploadErrors errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<String> violations = chunk.parallelStream()
+                .map(row -> validate(row.row()))
+                .toList();
+        StringBuilder copyData = new StringBuilder();
+        long valid = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            NumberedRow row = chunk.get(i);
+            if (violations.get(i) != null) {
+                errors.reject(row.number(), violations.get(i));
+                continue;
+            }
+            appendCopyRow(copyData, importId, row);
+            valid++;
+        }
+        chunk.clear();
+        if (valid > 0) {
+            transactionTemplate.executeWithoutResult(
+                    status -> studentImportRepository.copyToStaging(copyData.toString()));
+        }
+        return valid;
+    }
+
+    private String validate(StudentImportRow row) {
+        Set<ConstraintViolation<StudentImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static void appendCopyRow(StringBuilder copyData, UUID importId, NumberedRow numberedRow) {
+        StudentImportRow row = numberedRow.row();
+        copyData.append(importId).append(',').append(numberedRow.number());
+        for (String value : new String[]{row.firstName(), row.lastName(), row.email(), row.address(),
+                row.phoneNumber(), row.courseTitles()}) {
+            copyData.append(',');
+            if (value != null) {
+                copyData.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+        }
+        copyData.append('\n');
+    }
+
+    private record NumberedRow(long number, StudentImportRow row) {
+    }
+}
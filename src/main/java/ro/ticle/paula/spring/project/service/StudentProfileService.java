@@ -42,6 +42,7 @@ public class StudentProfileService {
         log.info("Profile created for student {}", studentId);
     }
 
+    @Transactional
     public StudentProfileResponse getProfile(UUID studentId) {
         StudentProfile profile = studentProfileRepository.findByStudentId(studentId)
                 .orElseThrow(() -> new BadRequestException("Profile not found for student " + studentId));
@@ -3,28 +3,50 @@ package ro.ticle.paula.spring.project.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ro.ticle.paula.spring.project.model.response.StudentResponse;
 import ro.ticle.paula.spring.project.entity.Course;
 import ro.ticle.paula.spring.project.entity.Student;
 import ro.ticle.paula.spring.project.entity.StudentProfile;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.projection.StudentCourseProjection;
 import ro.ticle.paula.spring.project.model.projection.StudentProjection;
 import ro.ticle.paula.spring.project.model.request.StudentRequest;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
 import ro.ticle.paula.spring.project.repository.StudentRepository;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.pagination.PageBounds;
+import ro.ticle.paula.spring.project.model.response.CourseSummaryResponse;
+import ro.ticle.paula.spring.project.model.response.BulkStudentDeleteResponse;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StudentService {
 
+    static final int MAX_DELETED_STUDENTS = 1000;
+
     private final StudentRepository studentRepository;
+    private final RowCountEstimator rowCountEstimator;
     private final CourseService courseService;
+    private final EnrollmentRepository enrollmentRepository;
 
     @Transactional
     public void addStudent(StudentRequest studentRequest) {
@@ -32,56 +54,109 @@ public class StudentService {
             log.error("Student with email {} already exists", studentRequest.email());
             throw new BadRequestException("Student with email already exists");
         }
+        Set<Course> courses = courseService.getOrCreateCourses(studentRequest.courseTitles());
         Student newStudent = buildStudentFromRequest(studentRequest);
         studentRepository.save(newStudent);
-        // Create and save profile for the new student
-        StudentProfile profile = StudentProfile.builder()
-                .address(studentRequest.address())
-                .phoneNumber(studentRequest.phoneNumber())
-                .student(newStudent)
-                .build();
-        newStudent.setProfile(profile);
-        // Save profile (if you have a StudentProfileRepository, use it; otherwise, rely on cascade)
+        // Enrollment rows are written directly so the students of each course are never loaded
+        Long[] courseIds = courses.stream().map(Course::getId).toArray(Long[]::new);
+        enrollmentRepository.enrollStudent(newStudent.getId(), courseIds);
     }
 
-    public Page<StudentResponse> getStudents(int page, int size) {
-        log.info("Get students from page {} of size {}", page, size);
-        return studentRepository.findAllBy(PageRequest.of(page, size))
-                .map(StudentService::getStudentResponse);
+    @Transactional
+    public PageResponse<StudentResponse> getStudents(int page, int size, CountMode countMode) {
+        log.info("Get students from page {} of size {} counting {}", page, size, countMode);
+        PageRequest pageRequest = PageBounds.pageRequest(page, size);
+        return switch (countMode) {
+            case EXACT -> {
+                Page<StudentProjection> students = studentRepository.findAllBy(pageRequest);
+                yield PageResponse.exact(students.map(withCourses(students.getContent())));
+            }
+            case ESTIMATE -> {
+                Slice<StudentProjection> students = studentRepository.findSliceBy(pageRequest);
+                yield PageResponse.estimated(students.map(withCourses(students.getContent())),
+                        rowCountEstimator.estimate("students", studentRepository::count));
+            }
+            case NONE -> {
+                Slice<StudentProjection> students = studentRepository.findSliceBy(pageRequest);
+                yield PageResponse.uncounted(students.map(withCourses(students.getContent())));
+            }
+        };
+    }
+
+    @Transactional
+    public CursorPage<StudentResponse> getStudentsAfter(String after, int size) {
+        log.info("Get students after cursor {} of size {}", after, size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Limit limit = PageBounds.keysetLimit(size);
+        List<StudentProjection> students = cursor == null
+                ? studentRepository.findFirstKeysetPage(limit)
+                : studentRepository.findKeysetPageAfter(cursor.key(), cursor.uuidId(), limit);
+        List<StudentProjection> page = students.subList(0, Math.min(size, students.size()));
+        return CursorPage.of(students, size, withCourses(page),
+                student -> KeysetCursor.encode(student.getLastName(), student.getId()));
     }
 
+    @Transactional
     public StudentResponse getStudent(UUID id) {
         log.info("Get student with id {}", id);
         return studentRepository.findStudentById(id)
-                .map(StudentService::getStudentResponse)
+                .map(student -> withCourses(List.of(student)).apply(student))
                 .orElseThrow(() -> new BadRequestException("Student not found with id " + id));
     }
 
     @Transactional
     public void deleteStudent(UUID id) {
-        if (!studentRepository.existsById(id)) {
+        log.info("Delete student with id {}", id);
+        if (studentRepository.softDeleteByIds(Set.of(id), Instant.now()) == 0) {
             log.error("Student with id {} does not exist", id);
             throw new BadRequestException("Student does not exist");
         }
-        log.info("Delete student with id {}", id);
-        studentRepository.deleteById(id);
     }
 
-    private Student buildStudentFromRequest(StudentRequest studentRequest) {
+    @Transactional
+    public BulkStudentDeleteResponse deleteStudents(Collection<UUID> ids) {
+        Set<UUID> distinctIds = new HashSet<>(ids);
+        if (distinctIds.isEmpty() || distinctIds.size() > MAX_DELETED_STUDENTS) {
+            throw new BadRequestException("Between 1 and " + MAX_DELETED_STUDENTS + " student ids are required");
+        }
+        log.info("Delete {} students", distinctIds.size());
+        int deleted = studentRepository.softDeleteByIds(distinctIds, Instant.now());
+        log.info("Deleted {} students, {} were not found", deleted, distinctIds.size() - deleted);
+        return new BulkStudentDeleteResponse(deleted, distinctIds.size() - deleted);
+    }
+
+    private static Student buildStudentFromRequest(StudentRequest studentRequest) {
         log.info("Creating student with first name: {}, last name: {}, email: {}",
                 studentRequest.firstName(), studentRequest.lastName(), studentRequest.email());
-        Set<Course> courses = courseService.getOrCreateCourses(studentRequest.courseTitles());
         Student newStudent = Student.builder()
                 .firstName(studentRequest.firstName())
                 .lastName(studentRequest.lastName())
                 .email(studentRequest.email())
-                .courses(courses)
                 .build();
-        courses.forEach(course -> course.getStudents().add(newStudent));
+        StudentProfile profile = StudentProfile.builder()
+                .address(studentRequest.address())
+                .phoneNumber(studentRequest.phoneNumber())
+                .student(newStudent)
+                .build();
+        newStudent.setProfile(profile);
         return newStudent;
     }
 
-    private static StudentResponse getStudentResponse(StudentProjection student) {
-        return new StudentResponse(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail(), student.getCourses());
+    // Loads the courses of every student on the page with one query instead of one query per student
+    private Function<StudentProjection, StudentResponse> withCourses(List<StudentProjection> students) {
+        if (students.isEmpty()) {
+            return student -> buildStudentResponse(student, List.of());
+        }
+        Map<UUID, List<CourseSummaryResponse>> courses = enrollmentRepository
+                .findCoursesByStudentIds(students.stream().map(StudentProjection::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(StudentCourseProjection::getStudentId, Collectors.mapping(
+                        course -> new CourseSummaryResponse(course.getCourseId(), course.getTitle()),
+                        Collectors.toList())));
+        return student -> buildStudentResponse(student, courses.getOrDefault(student.getId(), List.of()));
+    }
+
+    private static StudentResponse buildStudentResponse(StudentProjection student, List<CourseSummaryResponse> courses) {
+        return new StudentResponse(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail(), courses);
     }
 }
@@ -0,0 +1,163 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.config.OffloadingPasswordEncoder;
+import ro.ticle.paula.spring.project.entity.Role;
+import ro.ticle.paula.spring.project.entity.UuidV7Generator;
+import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.model.response.BulkUserResponse;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository.NewUser;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository.NewUserRole;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProvisioningService {
+
+    private final UserProvisioningRepository userProvisioningRepository;
+    private final RoleRepository roleRepository;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${user.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkUserResponse bulkRegister(InputStream ndjson) {
+        long startTime = System.nanoTime();
+        BulkUserSummary summary = new BulkUserSummary();
+        List<NumberedUser> chunk = new ArrayList<>(chunkSize);
+        NdjsonUpload.read(objectMapper, ndjson, "user upload", summary.errors, (line, parser) -> {
+            UserRequest user = parser.readValueAs(UserRequest.class);
+            String violations = validate(user);
+            if (violations != null) {
+                summary.errors.reject(line, violations);
+                return;
+            }
+            if (!summary.usernames.add(user.username())) {
+                summary.errors.reject(line, "username appears earlier in the upload");
+                return;
+            }
+            chunk.add(new NumberedUser(line, user));
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, summary);
+            }
+        });
+        writeChunk(chunk, summary);
+
+        // Measured in nanoseconds, a small upload can finish within the same millisecond
+        long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double usersPerSecond = summary.created * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        log.info("Bulk user registration finished: {} created, {} rejected in {} ms ({} users/s)",
+                summary.created, summary.errors.rejected(), elapsedMillis, String.format("%.1f", usersPerSecond));
+        return new BulkUserResponse(summary.created, summary.errors.rejected(), elapsedMillis, usersPerSecond,
+                summary.errors.errors());
+    }
+
+    private void writeChunk(List<NumberedUser> chunk, BulkUserSummary summary) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Existing users are dropped before hashing, hashing is by far the most expensive step
+        Set<String> existing = new HashSet<>(userProvisioningRepository.findExistingUsernames(chunk.stream()
+                .map(user -> user.request().username())
+                .toArray(String[]::new)));
+        List<NumberedUser> accepted = new ArrayList<>(chunk.size());
+        for (NumberedUser user : chunk) {
+            if (existing.contains(user.request().username())) {
+                summary.errors.reject(user.line(), "username already exists");
+            } else if (findUnknownRole(user.request(), summary.roleIds) instanceof String role) {
+                summary.errors.reject(user.line(), "role not found: " + role);
+            } else {
+                accepted.add(user);
+            }
+        }
+        chunk.clear();
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Queued on the bounded hashing pool all at once, the request thread only waits for the results
+        List<String> passwords = passwordEncoder.encodeAll(accepted.stream()
+                .map(user -> user.request().password())
+                .toList());
+
+        List<NewUser> users = new ArrayList<>(accepted.size());
+        List<NewUserRole> userRoles = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            UserRequest request = accepted.get(i).request();
+            UUID id = UuidV7Generator.next();
+            users.add(new NewUser(id, request.username(), passwords.get(i)));
+            for (String role : roleNames(request)) {
+                userRoles.add(new NewUserRole(id, summary.roleIds.get(role).orElseThrow()));
+            }
+        }
+        long created = transactionTemplate.execute(status -> {
+            userProvisioningRepository.insertUsers(users);
+            userProvisioningRepository.insertUserRoles(userRoles);
+            return userProvisioningRepository.countUsers(users.stream().map(NewUser::id).toArray(UUID[]::new));
+        });
+        summary.created += created;
+        // Usernames registered concurrently after the existence check
+        summary.errors.rejectUnreported(accepted.size() - created);
+    }
+
+    // Each role name is looked up once per upload
+    private String findUnknownRole(UserRequest user, Map<String, Optional<Long>> roleIds) {
+        for (String role : roleNames(user)) {
+            Optional<Long> roleId = roleIds.computeIfAbsent(role, name -> roleRepository.findByName(name).map(Role::getId));
+            if (roleId.isEmpty()) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    private String validate(UserRequest user) {
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Set<String> roleNames(UserRequest user) {
+        return user.roles() == null ? Set.of() : user.roles();
+    }
+
+    private record NumberedUser(long line, UserRequest request) {
+    }
+
+    private static final class BulkUserSummary {
+        private long created;
+        private final BulkUploadErrors errors = new BulkUploadErrors("line");
+        private final Set<String> usernames = new HashSet<>();
+        private final Map<String, Optional<Long>> roleIds = new HashMap<>();
+    }
+}
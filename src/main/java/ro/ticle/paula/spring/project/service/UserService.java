@@ -3,20 +3,32 @@ package ro.ticle.paula.spring.project.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.entity.User;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
+import ro.ticle.paula.spring.project.model.projection.RoleAssignmentProjection;
 import ro.ticle.paula.spring.project.model.projection.UserProjection;
+import ro.ticle.paula.spring.project.model.request.RoleAssignmentRequest;
 import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.model.response.RoleAssignmentResponse;
 import ro.ticle.paula.spring.project.model.response.UserResponse;
 import ro.ticle.paula.spring.project.repository.RoleRepository;
 import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.pagination.PageBounds;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -26,8 +38,10 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final RowCountEstimator rowCountEstimator;
     private final RoleRepository roleRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void registerUser(UserRequest userRequest) {
@@ -50,48 +64,128 @@ public class UserService {
 
     @Transactional
     public void assignRoleToUser(String username, String roleName) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new BadRequestException("User not found"));
-        Role role = roleRepository.findByName(roleName)
-                .orElseThrow(() -> new BadRequestException("Role not found"));
-        log.info("Assigning role {} to user {}", role, username);
-        user.getRoles().add(role);
-        userRepository.save(user);
+        Role role = findRole(roleName);
+        log.info("Assigning role {} to user {}", roleName, username);
+        RoleAssignmentProjection result = userRepository.grantRole(new String[]{username}, role.getId());
+        requireUserFound(result);
+        publishIfChanged(result, List.of(username));
     }
 
     @Transactional
     public void removeRoleFromUser(String username, String roleName) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new BadRequestException("User not found"));
-        Role role = roleRepository.findByName(roleName)
-                .orElseThrow(() -> new BadRequestException("Role not found"));
-        log.info("Removing role {} from user {}", role, username);
-        user.getRoles().remove(role);
-        userRepository.save(user);
+        Role role = findRole(roleName);
+        log.info("Removing role {} from user {}", roleName, username);
+        RoleAssignmentProjection result = userRepository.revokeRole(new String[]{username}, role.getId());
+        requireUserFound(result);
+        publishIfChanged(result, List.of(username));
+    }
+
+    @Transactional
+    public RoleAssignmentResponse grantRoleToUsers(RoleAssignmentRequest request) {
+        Role role = findRole(request.role());
+        log.info("Granting role {} to {} users", request.role(), request.usernames().size());
+        RoleAssignmentProjection result = userRepository.grantRole(request.usernames().toArray(String[]::new), role.getId());
+        publishIfChanged(result, request.usernames());
+        return buildRoleAssignmentResponse(request.role(), result);
     }
 
+    @Transactional
+    public RoleAssignmentResponse revokeRoleFromUsers(RoleAssignmentRequest request) {
+        Role role = findRole(request.role());
+        log.info("Revoking role {} from {} users", request.role(), request.usernames().size());
+        RoleAssignmentProjection result = userRepository.revokeRole(request.usernames().toArray(String[]::new), role.getId());
+        publishIfChanged(result, request.usernames());
+        return buildRoleAssignmentResponse(request.role(), result);
+    }
+
+    @Transactional
     public UserResponse findUserById(UUID id) {
         return userRepository.findUserById(id)
                 .map(UserService::buildUserResponse)
                 .orElseThrow(() -> new BadRequestException("User not found"));
     }
 
-    public Page<UserResponse> getAllUsers(int page, int size) {
-        log.info("Retrieving users from page {} of size {}", page, size);
-        return userRepository.findAllUsers(PageRequest.of(page, size))
-                .map(UserService::buildUserResponse);
+    @Transactional
+    public PageResponse<UserResponse> getAllUsers(int page, int size, CountMode countMode, String role) {
+        log.info("Retrieving users with role {} from page {} of size {} counting {}", role, page, size, countMode);
+        PageRequest pageRequest = PageBounds.pageRequest(page, size);
+        if (role != null) {
+            // Only known roles reach the queries and the count cache, which is keyed by the role
+            String roleName = findRole(role).getName();
+            return switch (countMode) {
+                case EXACT -> PageResponse.exact(userRepository.findAllUsersWithRole(roleName, pageRequest)
+                        .map(UserService::buildUserResponse));
+                case ESTIMATE -> PageResponse.estimated(userRepository.findUserSliceWithRole(roleName, pageRequest)
+                        .map(UserService::buildUserResponse),
+                        rowCountEstimator.cachedCount("users:" + roleName, () -> userRepository.countWithRole(roleName)));
+                case NONE -> PageResponse.uncounted(userRepository.findUserSliceWithRole(roleName, pageRequest)
+                        .map(UserService::buildUserResponse));
+            };
+        }
+        return switch (countMode) {
+            case EXACT -> PageResponse.exact(userRepository.findAllUsers(pageRequest)
+                    .map(UserService::buildUserResponse));
+            case ESTIMATE -> PageResponse.estimated(userRepository.findUserSlice(pageRequest)
+                    .map(UserService::buildUserResponse), rowCountEstimator.estimate("users", userRepository::count));
+            case NONE -> PageResponse.uncounted(userRepository.findUserSlice(pageRequest)
+                    .map(UserService::buildUserResponse));
+        };
     }
 
     @Transactional
-    public void deleteUser(UUID id) {
-        if (!userRepository.existsById(id)) {
-            log.error("User with id {} does not exist", id);
-            throw new BadRequestException("User not found");
+    public CursorPage<UserResponse> getAllUsersAfter(String after, int size, String role) {
+        log.info("Retrieving users with role {} after cursor {} of size {}", role, after, size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Limit limit = PageBounds.keysetLimit(size);
+        List<UserProjection> users;
+        if (role != null) {
+            String roleName = findRole(role).getName();
+            users = cursor == null
+                    ? userRepository.findFirstKeysetPageWithRole(roleName, limit)
+                    : userRepository.findKeysetPageAfterWithRole(roleName, cursor.key(), cursor.uuidId(), limit);
+        } else {
+            users = cursor == null
+                    ? userRepository.findFirstKeysetPage(limit)
+                    : userRepository.findKeysetPageAfter(cursor.key(), cursor.uuidId(), limit);
         }
+        return CursorPage.of(users, size, UserService::buildUserResponse,
+                user -> KeysetCursor.encode(user.getUsername(), user.getId()));
+    }
+
+    @Transactional
+    public void deleteUser(UUID id) {
+        String username = userRepository.findUsernameById(id)
+                .orElseThrow(() -> {
+                    log.error("User with id {} does not exist", id);
+                    return new BadRequestException("User not found");
+                });
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(List.of(username)));
         log.info("User with id {} deleted successfully", id);
     }
 
+    private Role findRole(String roleName) {
+        return roleRepository.findByName(roleName)
+                .orElseThrow(() -> new BadRequestException("Role not found"));
+    }
+
+    private static void requireUserFound(RoleAssignmentProjection result) {
+        if (result.getMatched() == 0) {
+            throw new BadRequestException("User not found");
+        }
+    }
+
+    private void publishIfChanged(RoleAssignmentProjection result, Collection<String> usernames) {
+        if (result.getChanged() > 0) {
+            eventPublisher.publishEvent(new UserDetailsChangedEvent(usernames));
+        }
+    }
+
+    private static RoleAssignmentResponse buildRoleAssignmentResponse(String role, RoleAssignmentProjection result) {
+        return new RoleAssignmentResponse(role, result.getChanged(), result.getMatched() - result.getChanged(),
+                result.getMissing());
+    }
+
     private static UserResponse buildUserResponse(UserProjection userProjection) {
         return UserResponse.builder()
                 .id(userProjection.getId())
@@ -1,48 +1,50 @@
 package ro.ticle.paula.spring.project.service.impl;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ro.ticle.paula.spring.project.entity.Role;
-import ro.ticle.paula.spring.project.entity.User;
+import ro.ticle.paula.spring.project.entity.UuidV7Generator;
 import ro.ticle.paula.spring.project.repository.RoleRepository;
 import ro.ticle.paula.spring.project.repository.UserRepository;
 
-import java.util.Collections;
-import java.util.Optional;
-
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Profile("!test")
 public class InitialUserSetupService {
 
+    static final String LOCK_NAME = "initial-user-setup";
+    static final String ADMIN_ROLE = "ADMIN";
+    static final String ADMIN_USERNAME = "admin";
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
 
-    @PostConstruct
+    // Runs once the node serves traffic. Nodes starting together skip the setup while another one holds the lock,
+    // and the inserts only add what is missing, so a setup that was interrupted is completed on the next start.
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
     @Transactional
     public void init() {
-        // Create ADMIN role if it doesn't exist
-        Role adminRole = roleRepository.findByName("ADMIN")
-                .orElseGet(() -> {
-                    Role newRole = new Role();
-                    newRole.setName("ADMIN");
-                    return roleRepository.save(newRole);
-                });
+        if (!userRepository.tryTransactionLock(LOCK_NAME)) {
+            log.debug("Initial user setup is running on another node");
+            return;
+        }
+        roleRepository.insertIfAbsent(ADMIN_ROLE);
 
-        // Create admin user if it doesn't exist
-        Optional<User> adminUserOpt = userRepository.findByUsername("admin");
-        if (adminUserOpt.isEmpty()) {
-            User adminUser = new User();
-            adminUser.setUsername("admin");
-            adminUser.setPassword(passwordEncoder.encode("admin"));
-            adminUser.setEnabled(true);
-            adminUser.setRoles(Collections.singleton(adminRole));
-            userRepository.save(adminUser);
+        // Checked before hashing, the admin user exists on every start but the first
+        if (userRepository.existsByUsername(ADMIN_USERNAME)) {
+            return;
         }
+        userRepository.insertIfAbsentWithRole(UuidV7Generator.next(), ADMIN_USERNAME, passwordEncoder.encode("admin"),
+                ADMIN_ROLE);
+        log.info("Created the initial {} user", ADMIN_USERNAME);
     }
 }
@@ -0,0 +1,125 @@
+package ro.ticle.paula.spring.project.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.repository.SoftDeletePurgeRepository;
+import ro.ticle.paula.spring.project.repository.SoftDeletePurgeRepository.Step;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class SoftDeletePurgeService {
+
+    private final SoftDeletePurgeRepository softDeletePurgeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Step, StepMeters> meters = new EnumMap<>(Step.class);
+
+    @Value("${purge.batch-size:500}")
+    private int batchSize;
+
+    // Pause between two batches of a step, leaves room for the regular traffic and for replication to catch up
+    @Value("${purge.batch-delay:100ms}")
+    private Duration batchDelay;
+
+    @Value("${purge.lock-timeout:1s}")
+    private Duration lockTimeout;
+
+    public SoftDeletePurgeService(SoftDeletePurgeRepository softDeletePurgeRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.softDeletePurgeRepository = softDeletePurgeRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (Step step : Step.values()) {
+            meters.put(step, new StepMeters(step, meterRegistry));
+        }
+    }
+
+    // Several nodes can run the purge at the same time, SKIP LOCKED hands each of them different rows
+    @Scheduled(fixedDelayString = "${purge.interval:1m}", initialDelayString = "${purge.interval:1m}")
+    public void purge() {
+        for (Step step : Step.values()) {
+            long purged = purgeStep(step);
+            long backlog = softDeletePurgeRepository.countBacklog(step);
+            meters.get(step).backlog.set(backlog);
+            if (purged > 0) {
+                log.info("Purged {} rows for {}, {} left", purged, step, backlog);
+            }
+        }
+    }
+
+    private long purgeStep(Step step) {
+        StepMeters stepMeters = meters.get(step);
+        long purged = 0;
+        while (true) {
+            List<String> rowIds;
+            try {
+                rowIds = transactionTemplate.execute(status -> purgeBatch(step, stepMeters));
+            } catch (PessimisticLockingFailureException e) {
+                // Retried on the next run, the rows of this step are held by a long running transaction
+                stepMeters.lockTimeouts.increment();
+                log.warn("Purge of {} gave up waiting for a lock after {}", step, lockTimeout);
+                return purged;
+            }
+            purged += rowIds.size();
+            if (rowIds.size() < batchSize) {
+                return purged;
+            }
+            try {
+                Thread.sleep(batchDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return purged;
+            }
+        }
+    }
+
+    private List<String> purgeBatch(Step step, StepMeters stepMeters) {
+        softDeletePurgeRepository.setLockTimeout(lockTimeout);
+        List<String> rowIds = stepMeters.lockWait.record(() -> softDeletePurgeRepository.lockBatch(step, batchSize));
+        if (!rowIds.isEmpty()) {
+            stepMeters.rows.increment(softDeletePurgeRepository.deleteBatch(step, rowIds));
+        }
+        return rowIds;
+    }
+
+    private static final class StepMeters {
+
+        private final AtomicLong backlog = new AtomicLong();
+        private final Timer lockWait;
+        private final Counter rows;
+        private final Counter lockTimeouts;
+
+        private StepMeters(Step step, MeterRegistry meterRegistry) {
+            Gauge.builder("purge.backlog", backlog, AtomicLong::get)
+                    .description("Soft deleted rows waiting for the purge job, as counted after its last run")
+                    .tag("step", step.name())
+                    .register(meterRegistry);
+            lockWait = Timer.builder("purge.lock.wait")
+                    .description("Time spent locking a purge batch, bounded by purge.lock-timeout")
+                    .tag("step", step.name())
+                    .register(meterRegistry);
+            rows = Counter.builder("purge.rows")
+                    .description("Rows physically removed by the purge job")
+                    .baseUnit("rows")
+                    .tag("step", step.name())
+                    .register(meterRegistry);
+            lockTimeouts = Counter.builder("purge.lock.timeouts")
+                    .description("Purge batches abandoned because a lock was not granted within purge.lock-timeout")
+                    .tag("step", step.name())
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+--liquibase formatted sql
+--changeset paula:010
+-- Merge courses that share a title into the one with the lowest id before enforcing uniqueness
+INSERT INTO enrollment (course_id, student_id)
+SELECT keep.id, e.student_id
+FROM enrollment e
+         JOIN courses c ON c.id = e.course_id
+         JOIN (SELECT title, MIN(id) AS id FROM courses GROUP BY title) keep ON keep.title = c.title
+WHERE c.id <> keep.id
+ON CONFLICT DO NOTHING;
+DELETE
+FROM enrollment e USING courses c, (SELECT title, MIN(id) AS id FROM courses GROUP BY title) keep
+WHERE c.id = e.course_id
+  AND keep.title = c.title
+  AND c.id <> keep.id;
+DELETE
+FROM courses c USING (SELECT title, MIN(id) AS id FROM courses GROUP BY title) keep
+WHERE keep.title = c.title
+  AND c.id <> keep.id;
+CREATE UNIQUE INDEX ux_courses_title ON courses (title);
+--rollback DROP INDEX ux_courses_title;
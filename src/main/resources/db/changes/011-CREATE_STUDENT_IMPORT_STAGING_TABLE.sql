@@ -0,0 +1,16 @@
+--liquibase formatted sql
+--changeset paula:011
+CREATE UNLOGGED TABLE student_import_staging
+(
+    import_id     UUID   NOT NULL,
+    row_number    BIGINT NOT NULL,
+    student_id    UUID   NOT NULL DEFAULT gen_random_uuid(),
+    first_name    VARCHAR(255),
+    last_name     VARCHAR(255),
+    email         VARCHAR(255),
+    address       VARCHAR(255),
+    phone_number  VARCHAR(255),
+    course_titles TEXT
+);
+CREATE INDEX ix_student_import_staging_email ON student_import_staging (import_id, email, row_number);
+--rollback DROP TABLE student_import_staging;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset paula:012
+CREATE INDEX ix_students_last_name_id ON students (last_name, id);
+CREATE INDEX ix_professors_last_name_id ON professors (last_name, id);
+--rollback DROP INDEX ix_professors_last_name_id; DROP INDEX ix_students_last_name_id;
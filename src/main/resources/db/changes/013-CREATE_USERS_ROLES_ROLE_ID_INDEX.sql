@@ -0,0 +1,4 @@
+--liquibase formatted sql
+--changeset paula:013
+CREATE INDEX ix_users_roles_role_id ON users_roles (role_id, user_id);
+--rollback DROP INDEX ix_users_roles_role_id;
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+--changeset paula:014
+CREATE TABLE spring_session
+(
+    primary_id            CHAR(36) NOT NULL,
+    session_id            CHAR(36) NOT NULL,
+    creation_time         BIGINT   NOT NULL,
+    last_access_time      BIGINT   NOT NULL,
+    max_inactive_interval INT      NOT NULL,
+    expiry_time           BIGINT   NOT NULL,
+    principal_name        VARCHAR(100),
+    CONSTRAINT spring_session_pk PRIMARY KEY (primary_id)
+);
+CREATE UNIQUE INDEX ix_spring_session_session_id ON spring_session (session_id);
+CREATE INDEX ix_spring_session_expiry_time ON spring_session (expiry_time);
+CREATE INDEX ix_spring_session_principal_name ON spring_session (principal_name);
+
+CREATE TABLE spring_session_attributes
+(
+    session_primary_id CHAR(36)     NOT NULL,
+    attribute_name     VARCHAR(200) NOT NULL,
+    attribute_bytes    BYTEA        NOT NULL,
+    CONSTRAINT spring_session_attributes_pk PRIMARY KEY (session_primary_id, attribute_name),
+    CONSTRAINT spring_session_attributes_fk FOREIGN KEY (session_primary_id) REFERENCES spring_session (primary_id) ON DELETE CASCADE
+);
+--rollback DROP TABLE spring_session_attributes;
+--rollback DROP TABLE spring_session;
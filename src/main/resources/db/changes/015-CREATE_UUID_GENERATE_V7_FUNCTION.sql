@@ -0,0 +1,13 @@
+--liquibase formatted sql
+--changeset paula:015
+-- Version 7 UUID for rows created by set-based SQL, the millisecond Unix timestamp replaces the first 48 random bits
+-- of a version 4 UUID and the version nibble is changed from 4 to 7
+CREATE FUNCTION uuid_generate_v7() RETURNS uuid AS
+$$
+SELECT encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid())
+                                      PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                                      FROM 1 FOR 6), 52, 1), 53, 1), 'hex')::uuid
+$$ LANGUAGE sql VOLATILE;
+ALTER TABLE student_import_staging ALTER COLUMN student_id SET DEFAULT uuid_generate_v7();
+--rollback ALTER TABLE student_import_staging ALTER COLUMN student_id SET DEFAULT gen_random_uuid();
+--rollback DROP FUNCTION uuid_generate_v7();
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+--changeset paula:016
+-- Matches the allocation size of the entity sequence generators, each nextval reserves a block of 50 ids that
+-- Hibernate hands out without further round trips. Inserts that use the column default take the last id of a block.
+ALTER SEQUENCE departments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE courses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+--rollback ALTER SEQUENCE departments_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE courses_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE roles_id_seq INCREMENT BY 1;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+--changeset paula:017
+CREATE INDEX ix_enrollment_student_id ON enrollment (student_id, course_id);
+CREATE INDEX ix_courses_professor_id ON courses (professor_id);
+CREATE INDEX ix_courses_department_id ON courses (department_id);
+CREATE INDEX ix_professors_department_id ON professors (department_id);
+CREATE INDEX ix_departments_name ON departments (name) INCLUDE (id);
+--rollback DROP INDEX ix_departments_name; DROP INDEX ix_professors_department_id; DROP INDEX ix_courses_department_id; DROP INDEX ix_courses_professor_id; DROP INDEX ix_enrollment_student_id;
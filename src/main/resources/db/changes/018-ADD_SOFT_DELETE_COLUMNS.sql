@@ -0,0 +1,26 @@
+--liquibase formatted sql
+--changeset paula:018
+ALTER TABLE students ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE courses ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE professors ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+
+-- Only hold the purge backlog, so they stay small while the purge job keeps up
+CREATE INDEX ix_students_deleted_at ON students (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX ix_courses_deleted_at ON courses (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX ix_professors_deleted_at ON professors (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Deleted rows keep their values until they are purged without blocking new rows that reuse them
+ALTER TABLE students DROP CONSTRAINT students_email_key;
+CREATE UNIQUE INDEX ux_students_email ON students (email) WHERE deleted_at IS NULL;
+ALTER TABLE professors DROP CONSTRAINT professors_email_key;
+CREATE UNIQUE INDEX ux_professors_email ON professors (email) WHERE deleted_at IS NULL;
+ALTER TABLE professors DROP CONSTRAINT professors_phone_number_key;
+CREATE UNIQUE INDEX ux_professors_phone_number ON professors (phone_number) WHERE deleted_at IS NULL;
+DROP INDEX ux_courses_title;
+CREATE UNIQUE INDEX ux_courses_title ON courses (title) WHERE deleted_at IS NULL;
+--rollback DROP INDEX ux_courses_title; CREATE UNIQUE INDEX ux_courses_title ON courses (title);
+--rollback DROP INDEX ux_professors_phone_number; ALTER TABLE professors ADD CONSTRAINT professors_phone_number_key UNIQUE (phone_number);
+--rollback DROP INDEX ux_professors_email; ALTER TABLE professors ADD CONSTRAINT professors_email_key UNIQUE (email);
+--rollback DROP INDEX ux_students_email; ALTER TABLE students ADD CONSTRAINT students_email_key UNIQUE (email);
+--rollback DROP INDEX ix_professors_deleted_at; DROP INDEX ix_courses_deleted_at; DROP INDEX ix_students_deleted_at;
+--rollback ALTER TABLE professors DROP COLUMN deleted_at; ALTER TABLE courses DROP COLUMN deleted_at; ALTER TABLE students DROP COLUMN deleted_at;
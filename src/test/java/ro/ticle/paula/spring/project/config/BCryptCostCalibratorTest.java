@@ -0,0 +1,28 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCostCalibratorTest {
+
+    @Test
+    void costFor_DoublesWorkPerCostLevelUpToTheTarget() {
+        assertThat(BCryptCostCalibrator.costFor(Duration.ofMillis(50), Duration.ofMillis(250), 10, 14)).isEqualTo(12);
+        assertThat(BCryptCostCalibrator.costFor(Duration.ofMillis(50), Duration.ofMillis(200), 10, 14)).isEqualTo(12);
+        assertThat(BCryptCostCalibrator.costFor(Duration.ofMillis(50), Duration.ofMillis(199), 10, 14)).isEqualTo(11);
+    }
+
+    @Test
+    void costFor_StaysWithinBounds() {
+        assertThat(BCryptCostCalibrator.costFor(Duration.ofMillis(400), Duration.ofMillis(250), 10, 14)).isEqualTo(10);
+        assertThat(BCryptCostCalibrator.costFor(Duration.ofMillis(1), Duration.ofSeconds(10), 10, 14)).isEqualTo(14);
+    }
+
+    @Test
+    void calibrate_ReturnsACostWithinBounds() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofMillis(1), 4, 6)).isEqualTo(4);
+    }
+}
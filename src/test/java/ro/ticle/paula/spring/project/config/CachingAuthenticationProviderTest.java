@@ -0,0 +1,134 @@
+package ro.ticle.paula.spring.project.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new CachingAuthenticationProvider(delegate, Caffeine.newBuilder().build(),
+                Timer.builder("verification").register(meterRegistry),
+                Counter.builder("saved").register(meterRegistry));
+    }
+
+    @Test
+    void authenticate_RepeatedCredentialsAreVerifiedOnce() {
+        when(delegate.authenticate(any())).thenReturn(verified("alice"));
+
+        Authentication first = provider.authenticate(login("alice", "secret"));
+        Authentication second = provider.authenticate(login("alice", "secret"));
+
+        verify(delegate).authenticate(any());
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("alice");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        assertThat(meterRegistry.get("verification").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    void authenticate_DifferentPasswordIsVerifiedAgain() {
+        when(delegate.authenticate(any()))
+                .thenReturn(verified("alice"))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        provider.authenticate(login("alice", "secret"));
+
+        assertThatThrownBy(() -> provider.authenticate(login("alice", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_FailuresAreNotCached() {
+        when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> provider.authenticate(login("alice", "wrong")))
+                    .isInstanceOf(BadCredentialsException.class);
+        }
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void evict_ForgetsVerificationsOfChangedUsers() {
+        when(delegate.authenticate(any())).thenReturn(verified("alice"), verified("bob"), verified("alice"));
+        provider.authenticate(login("alice", "secret"));
+        provider.authenticate(login("bob", "secret"));
+
+        provider.evict(new UserDetailsChangedEvent(List.of("alice")));
+
+        provider.authenticate(login("alice", "secret"));
+        provider.authenticate(login("bob", "secret"));
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_MeasuresTheCpuOfOffloadedHashing() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(10);
+        try (OffloadingPasswordEncoder passwordEncoder = new OffloadingPasswordEncoder(bcrypt,
+                Executors.newSingleThreadExecutor(), 10_000)) {
+            DaoAuthenticationProvider dao = new DaoAuthenticationProvider(passwordEncoder);
+            dao.setUserDetailsService(new InMemoryUserDetailsManager(
+                    User.withUsername("alice").password(bcrypt.encode("secret")).roles("USER").build()));
+            provider = new CachingAuthenticationProvider(dao, Caffeine.newBuilder().build(),
+                    Timer.builder("verification").register(meterRegistry),
+                    Counter.builder("saved").register(meterRegistry));
+
+            provider.authenticate(login("alice", "secret"));
+            provider.authenticate(login("alice", "secret"));
+        }
+
+        // A cost 10 hash takes tens of milliseconds, the waiting request thread itself barely uses any CPU
+        double verificationMillis = meterRegistry.get("verification").timer().totalTime(TimeUnit.MILLISECONDS);
+        assertThat(verificationMillis).isGreaterThan(10);
+        assertThat(meterRegistry.get("saved").counter().count()).isCloseTo(verificationMillis / 1000, within(1e-6));
+    }
+
+    private static Authentication login(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+
+    private static Authentication verified(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+}
@@ -0,0 +1,130 @@
+package ro.ticle.paula.spring.project.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import ro.ticle.paula.spring.project.entity.Role;
+import ro.ticle.paula.spring.project.entity.User;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        customUserDetailsService = new CustomUserDetailsService(userRepository, Caffeine.newBuilder().build(), eventPublisher);
+    }
+
+    @Test
+    void loadUserByUsername_ServedFromCache() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", "ADMIN")));
+
+        UserDetails first = customUserDetailsService.loadUserByUsername("alice");
+        UserDetails second = customUserDetailsService.loadUserByUsername("alice");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        verify(userRepository).findByUsername("alice");
+    }
+
+    @Test
+    void loadUserByUsername_SharesAuthoritiesBetweenUsersWithSameRoles() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", "ADMIN", "USER")));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user("bob", "USER", "ADMIN")));
+
+        UserDetails alice = customUserDetailsService.loadUserByUsername("alice");
+        UserDetails bob = customUserDetailsService.loadUserByUsername("bob");
+
+        assertThat(bob.getAuthorities()).isSameAs(alice.getAuthorities());
+    }
+
+    @Test
+    void loadUserByUsername_NotFoundIsNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> customUserDetailsService.loadUserByUsername("ghost"))
+                    .isInstanceOf(UsernameNotFoundException.class);
+        }
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void evict_ReloadsOnlyChangedUsers() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", "USER")));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user("bob", "USER")));
+        customUserDetailsService.loadUserByUsername("alice");
+        customUserDetailsService.loadUserByUsername("bob");
+
+        customUserDetailsService.evict(new UserDetailsChangedEvent(List.of("alice")));
+        customUserDetailsService.loadUserByUsername("alice");
+        customUserDetailsService.loadUserByUsername("bob");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+        verify(userRepository).findByUsername("bob");
+    }
+
+    @Test
+    void loadUserByUsername_PasswordSurvivesCredentialErasure() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", "USER")));
+        UserDetails details = customUserDetailsService.loadUserByUsername("alice");
+
+        new UsernamePasswordAuthenticationToken(details, "secret", details.getAuthorities()).eraseCredentials();
+
+        assertThat(customUserDetailsService.loadUserByUsername("alice").getPassword()).isEqualTo("encoded_password");
+    }
+
+    @Test
+    void updatePassword_StoresNewHashAndEvictsUser() {
+        UserDetails details = new CachedUserDetails("alice", "old_hash", true, Set.of());
+
+        UserDetails updated = customUserDetailsService.updatePassword(details, "new_hash");
+
+        assertThat(updated.getPassword()).isEqualTo("new_hash");
+        assertThat(updated.getUsername()).isEqualTo("alice");
+        verify(userRepository).updatePassword("alice", "new_hash");
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(List.of("alice")));
+    }
+
+    private static User user(String username, String... roles) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .password("encoded_password")
+                .enabled(true)
+                .roles(Arrays.stream(roles)
+                        .map(role -> Role.builder().name(role).build())
+                        .collect(Collectors.toSet()))
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LazyWriteSessionRepositoryTest {
+
+    @Mock
+    private FindByIndexNameSessionRepository<MapSession> delegate;
+
+    private LazyWriteSessionRepository<MapSession> repository;
+    private MapSession stored;
+
+    @BeforeEach
+    void setUp() {
+        repository = new LazyWriteSessionRepository<>(delegate, Duration.ofMinutes(1));
+        stored = new MapSession();
+        stored.setLastAccessedTime(Instant.parse("2024-01-01T10:00:00Z"));
+    }
+
+    @Test
+    void save_NewSessionIsWritten() {
+        when(delegate.createSession()).thenReturn(stored);
+
+        repository.save(repository.createSession());
+
+        verify(delegate).save(stored);
+    }
+
+    @Test
+    void save_AccessWithinIntervalIsSkipped() {
+        when(delegate.findById(stored.getId())).thenReturn(stored);
+
+        LazyWriteSessionRepository.LazyWriteSession<MapSession> session = repository.findById(stored.getId());
+        session.setLastAccessedTime(Instant.parse("2024-01-01T10:00:59Z"));
+        repository.save(session);
+
+        verify(delegate, never()).save(stored);
+    }
+
+    @Test
+    void save_AccessAfterIntervalIsWrittenOnce() {
+        when(delegate.findById(stored.getId())).thenReturn(stored);
+
+        LazyWriteSessionRepository.LazyWriteSession<MapSession> session = repository.findById(stored.getId());
+        session.setLastAccessedTime(Instant.parse("2024-01-01T10:01:00Z"));
+        repository.save(session);
+        repository.save(session);
+
+        verify(delegate).save(stored);
+    }
+
+    @Test
+    void save_ChangedAttributesAreWritten() {
+        when(delegate.findById(stored.getId())).thenReturn(stored);
+
+        LazyWriteSessionRepository.LazyWriteSession<MapSession> session = repository.findById(stored.getId());
+        session.setAttribute("expired", true);
+        repository.save(session);
+
+        verify(delegate).save(stored);
+        assertThat(stored.<Boolean>getAttribute("expired")).isTrue();
+    }
+
+    @Test
+    void findById_MissingSessionIsNull() {
+        assertThat(repository.findById("missing")).isNull();
+    }
+
+    @Test
+    void findByPrincipalName_SessionsAreWrapped() {
+        when(delegate.findByIndexNameAndIndexValue(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice"))
+                .thenReturn(Map.of(stored.getId(), stored));
+
+        assertThat(repository.findByPrincipalName("alice"))
+                .containsOnlyKeys(stored.getId())
+                .extractingByKey(stored.getId())
+                .extracting(LazyWriteSessionRepository.LazyWriteSession::getId)
+                .isEqualTo(stored.getId());
+    }
+}
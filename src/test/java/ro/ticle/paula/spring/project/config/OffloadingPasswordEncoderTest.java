@@ -0,0 +1,106 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ro.ticle.paula.spring.project.exceptions.PasswordHashingUnavailableException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffloadingPasswordEncoderTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void hashesOnTheExecutor() {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5000);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(executor.getTaskCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void refusesHashingWhenTheQueueIsFull() {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(blockingEncoder(), executor, 5000);
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        assertThatThrownBy(() -> encoder.encode("secret"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+    }
+
+    @Test
+    void encodesBatchesLargerThanTheQueueInOrder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(bcrypt, executor, 5000);
+        List<String> passwords = List.of("a", "b", "c", "d", "e");
+
+        List<String> hashes = encoder.encodeAll(passwords);
+
+        assertThat(hashes).hasSize(passwords.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertThat(bcrypt.matches(passwords.get(i), hashes.get(i))).isTrue();
+        }
+        assertThat(executor.getTaskCount()).isEqualTo(passwords.size());
+    }
+
+    @Test
+    void refusesBatchesWhenTheQueueIsFullOfOtherHashes() {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(blockingEncoder(), executor, 5000);
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        assertThatThrownBy(() -> encoder.encodeAll(List.of("a", "b")))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+    }
+
+    @Test
+    void givesUpAfterTheTimeout() {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(blockingEncoder(), executor, 50);
+
+        assertThatThrownBy(() -> encoder.encode("secret"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                awaitRelease();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ro.ticle.paula.spring.project.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenConfigTest {
+
+    @Test
+    void signingKey_RequiresASecret() {
+        assertThatThrownBy(() -> TokenConfig.signingKey(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SECURITY_TOKEN_SECRET");
+        assertThatThrownBy(() -> TokenConfig.signingKey(null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void signingKey_RejectsSecretsShorterThan256Bits() {
+        String secret = Base64.getEncoder().encodeToString(new byte[31]);
+
+        assertThatThrownBy(() -> TokenConfig.signingKey(secret))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("security.token.secret must be at least 256 bits for HS256");
+    }
+
+    @Test
+    void signingKey_RejectsSecretsThatAreNotBase64() {
+        assertThatThrownBy(() -> TokenConfig.signingKey("not base64 at all!"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("security.token.secret must be base64 encoded");
+    }
+
+    @Test
+    void signingKey_AcceptsA256BitSecret() {
+        String secret = Base64.getEncoder().encodeToString(new byte[32]);
+
+        assertThat(TokenConfig.signingKey(secret).getEncoded()).hasSize(32);
+    }
+}
@@ -33,4 +33,16 @@ public abstract class BaseControllerTest {
 
     @MockitoBean
     protected StudentProfileService studentProfileService;
+
+    @MockitoBean
+    protected EnrollmentService enrollmentService;
+
+    @MockitoBean
+    protected StudentImportService studentImportService;
+
+    @MockitoBean
+    protected LoginService loginService;
+
+    @MockitoBean
+    protected UserProvisioningService userProvisioningService;
 } 
\ No newline at end of file
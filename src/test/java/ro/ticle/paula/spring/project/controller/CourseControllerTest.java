@@ -4,10 +4,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
-import ro.ticle.paula.spring.project.entity.Department;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.request.CourseRequest;
 import ro.ticle.paula.spring.project.model.response.CourseResponse;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.DepartmentSummaryResponse;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
 import java.util.List;
 
@@ -17,6 +20,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CourseController.class)
@@ -52,14 +56,11 @@ class CourseControllerTest extends BaseControllerTest {
 
     @Test
     void getCourses_Success() throws Exception {
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
+        DepartmentSummaryResponse department = new DepartmentSummaryResponse(1L, "Computer Science");
         CourseResponse courseResponse = new CourseResponse(1L, "Math 101", department);
 
-        when(courseService.getCourses(0, 10))
-                .thenReturn(new PageImpl<>(List.of(courseResponse)));
+        when(courseService.getCourses(0, 10, CountMode.EXACT))
+                .thenReturn(PageResponse.exact(new PageImpl<>(List.of(courseResponse))));
 
         mockMvc.perform(get("/v1/courses")
                         .param("page", "0")
@@ -69,13 +70,27 @@ class CourseControllerTest extends BaseControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getCoursesAfter_Success() throws Exception {
+        CourseResponse courseResponse = new CourseResponse(1L, "Math 101", null);
+
+        when(courseService.getCoursesAfter("", 5))
+                .thenReturn(new CursorPage<>(List.of(courseResponse), 1, null));
+
+        mockMvc.perform(get("/v1/courses")
+                        .param("after", "")
+                        .param("size", "5")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Math 101"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     @Test
     void getCourse_Success() throws Exception {
         Long courseId = 1L;
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
+        DepartmentSummaryResponse department = new DepartmentSummaryResponse(1L, "Computer Science");
         CourseResponse courseResponse = new CourseResponse(courseId, "Math 101", department);
 
         when(courseService.getCourse(courseId)).thenReturn(courseResponse);
@@ -0,0 +1,48 @@
+package ro.ticle.paula.spring.project.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import ro.ticle.paula.spring.project.model.response.BulkEnrollmentResponse;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EnrollmentController.class)
+class EnrollmentControllerTest extends BaseControllerTest {
+
+    @Test
+    void bulkEnroll_Success() throws Exception {
+        when(enrollmentService.bulkEnroll(any()))
+                .thenReturn(new BulkEnrollmentResponse(2, 1, 0, List.of()));
+
+        mockMvc.perform(post("/v1/enrollments:bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"courseId": 1, "studentId": "6f1c2a52-1d0e-4b8e-9a55-2f6f1f0c9a01"}
+                                {"courseId": 2, "studentId": "6f1c2a52-1d0e-4b8e-9a55-2f6f1f0c9a01"}
+                                """)
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.duplicates").value(1));
+    }
+
+    @Test
+    void bulkEnroll_UnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/v1/enrollments:bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -0,0 +1,47 @@
+package ro.ticle.paula.spring.project.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import ro.ticle.paula.spring.project.model.request.LoginRequest;
+import ro.ticle.paula.spring.project.model.response.TokenResponse;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LoginController.class)
+class LoginControllerTest extends BaseControllerTest {
+
+    @Test
+    void login_Success() throws Exception {
+        when(loginService.login(any(LoginRequest.class))).thenReturn(new TokenResponse("token", "Bearer", 900L));
+
+        mockMvc.perform(post("/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("testuser", "password")))
+                        .with(csrf())
+                        .with(user("testuser")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("token"))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
+    }
+
+    @Test
+    void login_MissingPassword() throws Exception {
+        mockMvc.perform(post("/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("testuser", "")))
+                        .with(csrf())
+                        .with(user("testuser")))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(loginService);
+    }
+}
@@ -8,7 +8,10 @@ import ro.ticle.paula.spring.project.entity.Department;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.request.ProfessorRequest;
 import ro.ticle.paula.spring.project.model.request.ProfessorUpdateRequest;
+import ro.ticle.paula.spring.project.model.response.DepartmentSummaryResponse;
 import ro.ticle.paula.spring.project.model.response.ProfessorResponse;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
 import java.util.List;
 import java.util.Set;
@@ -51,14 +54,11 @@ class ProfessorControllerTest extends BaseControllerTest {
 
     @Test
     void getProfessors_Success() throws Exception {
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
+        DepartmentSummaryResponse department = new DepartmentSummaryResponse(1L, "Computer Science");
         ProfessorResponse professorResponse = new ProfessorResponse(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", "1234567890", department);
 
-        when(professorService.getProfessors(0, 10))
-                .thenReturn(new PageImpl<>(List.of(professorResponse)));
+        when(professorService.getProfessors(0, 10, CountMode.EXACT))
+                .thenReturn(PageResponse.exact(new PageImpl<>(List.of(professorResponse))));
 
         mockMvc.perform(get("/v1/professors")
                         .param("page", "0")
@@ -71,10 +71,7 @@ class ProfessorControllerTest extends BaseControllerTest {
     @Test
     void getProfessor_Success() throws Exception {
         UUID professorId = UUID.randomUUID();
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
+        DepartmentSummaryResponse department = new DepartmentSummaryResponse(1L, "Computer Science");
         ProfessorResponse professorResponse = new ProfessorResponse(professorId, "John", "Doe", "john.doe@example.com", "1234567890", department);
 
         when(professorService.getProfessor(professorId)).thenReturn(professorResponse);
@@ -6,18 +6,29 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.request.StudentRequest;
+import ro.ticle.paula.spring.project.model.response.BulkStudentDeleteResponse;
+import ro.ticle.paula.spring.project.model.response.StudentImportResponse;
 import ro.ticle.paula.spring.project.model.response.StudentResponse;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(StudentController.class)
@@ -47,12 +58,29 @@ class StudentControllerTest extends BaseControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void importStudents_Success() throws Exception {
+        when(studentImportService.importStudents(any()))
+                .thenReturn(new StudentImportResponse(1, 0, List.of()));
+
+        mockMvc.perform(post("/v1/students/import")
+                        .contentType("text/csv")
+                        .content("""
+                                firstName,lastName,email,address,phoneNumber,courseTitles
+                                John,Doe,john.doe@example.com,New York,555-111-333,Math
+                                """)
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
     @Test
     void getStudents_Success() throws Exception {
-        StudentResponse studentResponse = new StudentResponse(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", Set.of());
+        StudentResponse studentResponse = new StudentResponse(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", List.of());
 
-        when(studentService.getStudents(0, 10))
-                .thenReturn(new PageImpl<>(List.of(studentResponse)));
+        when(studentService.getStudents(0, 10, CountMode.EXACT))
+                .thenReturn(PageResponse.exact(new PageImpl<>(List.of(studentResponse))));
 
         mockMvc.perform(get("/v1/students")
                         .param("page", "0")
@@ -62,10 +90,54 @@ class StudentControllerTest extends BaseControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getStudents_WithoutCount() throws Exception {
+        StudentResponse studentResponse = new StudentResponse(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", List.of());
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        when(studentService.getStudents(0, 10, CountMode.NONE))
+                .thenReturn(PageResponse.uncounted(new SliceImpl<>(List.of(studentResponse), pageRequest, false)));
+
+        mockMvc.perform(get("/v1/students")
+                        .param("count", "none")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalType").value("none"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getStudents_InvalidCount() throws Exception {
+        mockMvc.perform(get("/v1/students")
+                        .param("count", "sometimes")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStudentsAfter_Success() throws Exception {
+        StudentResponse studentResponse = new StudentResponse(UUID.randomUUID(), "John", "Doe", "john.doe@example.com", List.of());
+
+        when(studentService.getStudentsAfter("cursor", 10))
+                .thenReturn(new CursorPage<>(List.of(studentResponse), 1, "next"));
+
+        mockMvc.perform(get("/v1/students")
+                        .param("after", "cursor")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(studentService, never()).getStudents(anyInt(), anyInt(), any());
+    }
+
     @Test
     void getStudent_Success() throws Exception {
         UUID studentId = UUID.randomUUID();
-        StudentResponse studentResponse = new StudentResponse(studentId, "John", "Doe", "john.doe@example.com", Set.of());
+        StudentResponse studentResponse = new StudentResponse(studentId, "John", "Doe", "john.doe@example.com", List.of());
 
         when(studentService.getStudent(studentId)).thenReturn(studentResponse);
 
@@ -109,4 +181,33 @@ class StudentControllerTest extends BaseControllerTest {
                         .with(user("admin").roles("ADMIN")))
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void deleteStudents_Success() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(studentService.deleteStudents(List.of(first, second)))
+                .thenReturn(new BulkStudentDeleteResponse(1, 1));
+
+        mockMvc.perform(post("/v1/students/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + first + "\",\"" + second + "\"]}")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.notFound").value(1));
+    }
+
+    @Test
+    void deleteStudents_MissingIds() throws Exception {
+        mockMvc.perform(post("/v1/students/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        verify(studentService, never()).deleteStudents(any());
+    }
+}
@@ -5,8 +5,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.request.RoleAssignmentRequest;
 import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.RoleAssignmentResponse;
 import ro.ticle.paula.spring.project.model.response.UserResponse;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
 import java.util.List;
 import java.util.Set;
@@ -15,10 +20,12 @@ import java.util.UUID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -74,6 +81,34 @@ class UserControllerTest extends BaseControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void grantRole_Success() throws Exception {
+        RoleAssignmentRequest request = new RoleAssignmentRequest("ROLE_ADMIN", Set.of("alice", "ghost"));
+        when(userService.grantRoleToUsers(request))
+                .thenReturn(new RoleAssignmentResponse("ROLE_ADMIN", 1, 0, List.of("ghost")));
+
+        mockMvc.perform(post("/v1/users/roles:grant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value("ghost"));
+    }
+
+    @Test
+    void revokeRole_EmptyUsernames() throws Exception {
+        mockMvc.perform(post("/v1/users/roles:revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoleAssignmentRequest("ROLE_ADMIN", Set.of())))
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void removeRole_Success() throws Exception {
         mockMvc.perform(delete("/v1/users/{username}/roles", "testuser")
@@ -99,7 +134,7 @@ class UserControllerTest extends BaseControllerTest {
     @Test
     void getUser_Success() throws Exception {
         UUID userId = UUID.randomUUID();
-        UserResponse userResponse = new UserResponse(userId, "testuser", true, Set.of());
+        UserResponse userResponse = new UserResponse(userId, "testuser", true, List.of());
 
         when(userService.findUserById(userId)).thenReturn(userResponse);
 
@@ -123,10 +158,10 @@ class UserControllerTest extends BaseControllerTest {
 
     @Test
     void getAllUsers_Success() throws Exception {
-        UserResponse userResponse = new UserResponse(UUID.randomUUID(), "testuser", true, Set.of());
+        UserResponse userResponse = new UserResponse(UUID.randomUUID(), "testuser", true, List.of());
 
-        when(userService.getAllUsers(0, 10))
-                .thenReturn(new PageImpl<>(List.of(userResponse)));
+        when(userService.getAllUsers(0, 10, CountMode.EXACT, null))
+                .thenReturn(PageResponse.exact(new PageImpl<>(List.of(userResponse))));
 
         mockMvc.perform(get("/v1/users")
                         .param("page", "0")
@@ -136,6 +171,38 @@ class UserControllerTest extends BaseControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllUsers_WithRole() throws Exception {
+        UserResponse userResponse = new UserResponse(UUID.randomUUID(), "admin", true, List.of("ADMIN"));
+
+        when(userService.getAllUsers(0, 10, CountMode.EXACT, "ADMIN"))
+                .thenReturn(PageResponse.exact(new PageImpl<>(List.of(userResponse))));
+
+        mockMvc.perform(get("/v1/users")
+                        .param("role", "ADMIN")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].roles[0]").value("ADMIN"));
+    }
+
+    @Test
+    void getAllUsersAfter_WithRole() throws Exception {
+        UserResponse userResponse = new UserResponse(UUID.randomUUID(), "admin", true, List.of("ADMIN"));
+
+        when(userService.getAllUsersAfter("", 10, "ADMIN"))
+                .thenReturn(new CursorPage<>(List.of(userResponse), 1, null));
+
+        mockMvc.perform(get("/v1/users")
+                        .param("after", "")
+                        .param("role", "ADMIN")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].username").value("admin"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     @Test
     void deleteUser_Success() throws Exception {
         UUID userId = UUID.randomUUID();
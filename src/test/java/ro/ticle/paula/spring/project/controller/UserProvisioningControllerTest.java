@@ -0,0 +1,48 @@
+package ro.ticle.paula.spring.project.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import ro.ticle.paula.spring.project.model.response.BulkUserResponse;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserProvisioningController.class)
+class UserProvisioningControllerTest extends BaseControllerTest {
+
+    @Test
+    void bulkRegister_Success() throws Exception {
+        when(userProvisioningService.bulkRegister(any()))
+                .thenReturn(new BulkUserResponse(2, 1, 100, 20.0, List.of("line 3: username already exists")));
+
+        mockMvc.perform(post("/v1/users:bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"username": "alice", "password": "a"}
+                                """)
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.usersPerSecond").value(20.0))
+                .andExpect(jsonPath("$.errors[0]").value("line 3: username already exists"));
+    }
+
+    @Test
+    void bulkRegister_RequiresNdjson() throws Exception {
+        mockMvc.perform(post("/v1/users:bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .with(csrf())
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -0,0 +1,42 @@
+package ro.ticle.paula.spring.project.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_IsVersion7WithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // More than 4096 ids in one millisecond carry the sequence into the following ones
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 100);
+    }
+
+    @Test
+    void next_IsStrictlyIncreasing() {
+        List<UUID> ids = Stream.generate(UuidV7Generator::next).limit(100_000).toList();
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void next_IsUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(UuidV7Generator.next()));
+
+        assertThat(ids).hasSize(100_000);
+    }
+}
@@ -0,0 +1,28 @@
+package ro.ticle.paula.spring.project.helper;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+public class StatementCounter {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    public void reset() {
+        entityManager.flush();
+        statistics.clear();
+    }
+
+    public long count() {
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
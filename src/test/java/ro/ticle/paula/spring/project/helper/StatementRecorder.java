@@ -0,0 +1,116 @@
+package ro.ticle.paula.spring.project.helper;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL run through a wrapped data source together with the parameters bound to it, so a statement can be
+ * prepared again later, for example behind EXPLAIN. Batched statements keep the parameters of their first row.
+ * Connections are only wrapped while recording, so schema migrations at startup see the plain driver connections.
+ */
+public class StatementRecorder {
+
+    private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    public DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                recording && result instanceof Connection connection ? wrapConnection(connection) : result);
+    }
+
+    public void start() {
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    public List<RecordedStatement> statements() {
+        return List.copyOf(statements);
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                RecordedStatement recorded = new RecordedStatement(sql, new ArrayList<>());
+                statements.add(recorded);
+                return wrapStatement(statement, recorded);
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, (statementMethod, statementArgs, statementResult) -> {
+                    if (statementMethod.getName().startsWith("execute") && statementArgs != null
+                            && statementArgs[0] instanceof String sql) {
+                        statements.add(new RecordedStatement(sql, List.of()));
+                    }
+                    return statementResult;
+                });
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrapStatement(PreparedStatement statement, RecordedStatement recorded) {
+        boolean[] firstRowBound = {false};
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            if (method.getName().equals("addBatch")) {
+                firstRowBound[0] = true;
+            } else if (!firstRowBound[0] && method.getName().startsWith("set") && args != null
+                    && args[0] instanceof Integer) {
+                recorded.bindings().add(new Binding(method, args));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            // Transaction synchronization looks connections up by the data source, which must equal itself
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            try {
+                return handler.handle(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private interface ResultHandler {
+        Object handle(Method method, Object[] args, Object result) throws SQLException;
+    }
+
+    public record RecordedStatement(String sql, List<Binding> bindings) {
+
+        // Binds the recorded parameters to a statement whose parameters are in the same order
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.setter().invoke(statement, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Cannot replay " + binding.setter().getName(), e);
+                }
+            }
+        }
+    }
+
+    public record Binding(Method setter, Object[] args) {
+    }
+}
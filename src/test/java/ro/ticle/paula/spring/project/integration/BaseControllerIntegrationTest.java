@@ -26,13 +26,12 @@ public class BaseControllerIntegrationTest {
                 .withUsername("test")
                 .withPassword("test")
                 .withReuse(true);
-        postgres.start();
     }
 
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", postgres::getJdbcUrl);
-        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.url", () -> "jdbc:postgresql://localhost:5432/testdb");
+        registry.add("spring.datasource.username", () -> "postgres");
         registry.add("spring.datasource.password", postgres::getPassword);
     }
 }
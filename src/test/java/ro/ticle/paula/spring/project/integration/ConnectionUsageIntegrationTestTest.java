@@ -0,0 +1,49 @@
+package ro.ticle.paula.spring.project.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs outside the test transaction so every request borrows its own pooled connection
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConnectionUsageIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void openEntityManagerInViewIsDisabled() {
+        assertThat(applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void listingsBorrowOneConnectionPerRequest() throws Exception {
+        for (String path : new String[]{"/v1/students", "/v1/courses", "/v1/professors", "/v1/users"}) {
+            long checkouts = connectionUsage().count();
+
+            // The estimate reads table statistics next to the page, both within the same transaction
+            mockMvc.perform(get(path)
+                            .param("count", "estimate")
+                            .with(user("testuser").roles("ADMIN")))
+                    .andExpect(status().isOk());
+
+            assertThat(connectionUsage().count() - checkouts).as(path).isEqualTo(1L);
+        }
+    }
+
+    private Timer connectionUsage() {
+        return meterRegistry.get("hikaricp.connections.usage").timer();
+    }
+}
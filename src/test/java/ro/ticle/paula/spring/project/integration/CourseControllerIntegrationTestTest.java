@@ -1,17 +1,43 @@
 package ro.ticle.paula.spring.project.integration;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.PageRequest;
 import ro.ticle.paula.spring.project.entity.Course;
+import ro.ticle.paula.spring.project.entity.Department;
+import ro.ticle.paula.spring.project.entity.Enrollment;
+import ro.ticle.paula.spring.project.entity.EnrollmentId;
+import ro.ticle.paula.spring.project.entity.Professor;
+import ro.ticle.paula.spring.project.entity.Student;
+import ro.ticle.paula.spring.project.helper.StatementCounter;
 import ro.ticle.paula.spring.project.helper.mother.CourseMother;
+import ro.ticle.paula.spring.project.helper.mother.ProfessorMother;
+import ro.ticle.paula.spring.project.helper.mother.StudentMother;
+import ro.ticle.paula.spring.project.model.response.CourseResponse;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
 import ro.ticle.paula.spring.project.repository.CourseRepository;
+import ro.ticle.paula.spring.project.repository.DepartmentRepository;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
+import ro.ticle.paula.spring.project.repository.ProfessorRepository;
+import ro.ticle.paula.spring.project.repository.StudentRepository;
 import ro.ticle.paula.spring.project.service.CourseService;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -25,10 +51,25 @@ class CourseControllerIntegrationTestTest extends BaseControllerIntegrationTest
     private CourseService courseService;
     @Autowired
     private CourseRepository courseRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
 
     @BeforeEach
     void setUp() {
         courseRepository.deleteAll();
+        professorRepository.deleteAll();
+        departmentRepository.deleteAll();
+        statementCounter = new StatementCounter(entityManager);
     }
 
     @Test
@@ -84,6 +125,91 @@ class CourseControllerIntegrationTestTest extends BaseControllerIntegrationTest
         assertThat(courseRepository.findAll(PageRequest.of(0, 10))).isNotNull();
     }
 
+    @Test
+    void getCoursesReadsPageWithoutLoadingAssociations() throws Exception {
+        Department department = departmentRepository.save(new Department(null, "Mathematics", Set.of(), Set.of()));
+        Professor professor = professorRepository.save(ProfessorMother.getProfessor());
+        courseRepository.saveAll(IntStream.range(0, 15)
+                .mapToObj(i -> Course.builder().title("Course " + i).professor(professor).department(department).build())
+                .toList());
+        entityManager.flush();
+        entityManager.clear();
+        statementCounter.reset();
+
+        mockMvc.perform(get("/v1/courses")
+                        .param("size", "10")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].department.id").value(department.getId()))
+                .andExpect(jsonPath("$.content[0].department.name").value("Mathematics"))
+                .andExpect(jsonPath("$.content[0].professor").doesNotExist())
+                .andExpect(jsonPath("$.content[0].students").doesNotExist());
+
+        assertThat(statementCounter.count()).isEqualTo(2L);
+    }
+
+    @Test
+    void getCoursesWithCursorVisitsEveryCourseOnce() {
+        courseRepository.saveAll(Stream.of("Physics", "Algebra", "Chemistry", "Biology", "Economics")
+                .map(title -> Course.builder().title(title).build())
+                .toList());
+
+        List<String> titles = new ArrayList<>();
+        String after = "";
+        do {
+            CursorPage<CourseResponse> page = courseService.getCoursesAfter(after, 2);
+            page.content().forEach(course -> titles.add(course.title()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertThat(titles).isEqualTo(List.of("Algebra", "Biology", "Chemistry", "Economics", "Physics"));
+    }
+
+    @Test
+    void getCoursesWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/v1/courses")
+                        .param("after", "not a cursor")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCoursesWithoutCountSkipsCountQuery() {
+        courseRepository.saveAll(IntStream.range(0, 15)
+                .mapToObj(i -> Course.builder().title("Course " + i).build())
+                .toList());
+        statementCounter.reset();
+
+        PageResponse<CourseResponse> exact = courseService.getCourses(0, 10, CountMode.EXACT);
+        long exactStatements = statementCounter.count();
+        statementCounter.reset();
+        PageResponse<CourseResponse> uncounted = courseService.getCourses(0, 10, CountMode.NONE);
+
+        assertThat(exactStatements).isEqualTo(2L);
+        assertThat(exact.totalElements()).isEqualTo(15L);
+        assertThat(statementCounter.count()).isEqualTo(1L);
+        assertThat(uncounted.hasNext()).isTrue();
+        assertThat(uncounted.totalElements()).isNull();
+    }
+
+    @Test
+    void getCoursesWithEstimatedCount() throws Exception {
+        courseRepository.save(CourseMother.getCourse());
+
+        mockMvc.perform(get("/v1/courses")
+                        .param("count", "estimate")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalType").value("estimate"))
+                .andExpect(jsonPath("$.totalElements").isNumber());
+    }
+
     @Test
     void getCourse() throws Exception {
         Course course = CourseMother.getCourse();
@@ -119,6 +245,23 @@ class CourseControllerIntegrationTestTest extends BaseControllerIntegrationTest
         assertThat(courseRepository.existsById(course.getId())).isFalse();
     }
 
+    @Test
+    void deleteCourseWithEnrollments() throws Exception {
+        Course course = courseRepository.save(CourseMother.getCourse());
+        Student student = studentRepository.save(StudentMother.getStudent());
+        enrollmentRepository.save(new Enrollment(new EnrollmentId(course.getId(), student.getId())));
+
+        mockMvc.perform(delete("/v1/courses/{id}", course.getId())
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk());
+
+        assertThat(courseRepository.existsById(course.getId())).isFalse();
+        assertThat(enrollmentRepository.count()).isEqualTo(1L);
+        assertThat(studentRepository.existsById(student.getId())).isTrue();
+    }
+
     @Test
     void deleteCourseNotFound() throws Exception {
         mockMvc.perform(delete("/v1/courses/{id}", 999L)
@@ -127,4 +270,60 @@ class CourseControllerIntegrationTestTest extends BaseControllerIntegrationTest
                 .andDo(log())
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getOrCreateCoursesResolvesAllTitlesInTwoStatements() {
+        courseRepository.save(Course.builder().title("Course 1").build());
+        Set<String> titles = IntStream.rangeClosed(1, 8)
+                .mapToObj(i -> "Course " + i)
+                .collect(Collectors.toSet());
+        statementCounter.reset();
+
+        Set<Course> courses = courseService.getOrCreateCourses(titles);
+
+        // One lookup for every title and one insert for the seven missing ones, previously up to 16
+        assertThat(courses.size()).isEqualTo(8);
+        assertThat(statementCounter.count()).isEqualTo(2L);
+    }
+
+    @Test
+    void getOrCreateCoursesDoesNotLoadProfessorsOrDepartments() {
+        Department department = departmentRepository.save(Department.builder().name("Lazy Department").build());
+        List<Course> courses = courseRepository.saveAll(IntStream.range(0, 10)
+                .mapToObj(i -> Course.builder()
+                        .title("Lazy Course " + i)
+                        .department(department)
+                        .professor(professorRepository.save(Professor.builder()
+                                .firstName("Lazy" + i)
+                                .lastName("Professor")
+                                .email("lazy.professor" + i + "@mail.com")
+                                .phoneNumber("555-100-" + i)
+                                .department(department)
+                                .build()))
+                        .build())
+                .toList());
+        entityManager.flush();
+        entityManager.clear();
+        statementCounter.reset();
+
+        Set<Course> enrolled = courseService.getOrCreateCourses(courses.stream()
+                .map(Course::getTitle)
+                .collect(Collectors.toSet()));
+
+        // a single course lookup, professors and departments stay uninitialized proxies
+        assertThat(statementCounter.count()).isEqualTo(1L);
+        assertThat(enrolled.stream().noneMatch(course -> Hibernate.isInitialized(course.getProfessor())
+                || Hibernate.isInitialized(course.getDepartment()))).isTrue();
+    }
+
+    @Test
+    void getOrCreateCoursesReusesExistingTitles() {
+        Course existing = courseRepository.save(Course.builder().title("Course 1").build());
+        statementCounter.reset();
+
+        Set<Course> courses = courseService.getOrCreateCourses(Set.of("Course 1"));
+
+        assertThat(courses.iterator().next().getId()).isEqualTo(existing.getId());
+        assertThat(statementCounter.count()).isEqualTo(1L);
+    }
+}
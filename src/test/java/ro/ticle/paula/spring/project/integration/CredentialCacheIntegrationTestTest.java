@@ -0,0 +1,103 @@
+package ro.ticle.paula.spring.project.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.model.request.RoleRequest;
+import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.service.RoleService;
+import ro.ticle.paula.spring.project.service.UserService;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Evictions happen after commit, so these tests run without the test transaction and clean up after themselves
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "security.credential-cache.enabled=true")
+class CredentialCacheIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    private static final String USERNAME = "credential.user";
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleService.createRole(new RoleRequest("CREDENTIAL_READER"));
+        userService.registerUser(new UserRequest(USERNAME, "secret", Set.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername(USERNAME).ifPresent(user -> userService.deleteUser(user.getId()));
+        if (roleRepository.existsByName("CREDENTIAL_READER")) {
+            roleService.deleteRoleByName("CREDENTIAL_READER");
+        }
+    }
+
+    @Test
+    void repeatedAuthenticationsSkipPasswordVerification() {
+        double hits = hits();
+        double saved = cpuSaved();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticate("secret").getName()).isEqualTo(USERNAME);
+        }
+
+        assertThat(hits()).isEqualTo(hits + 2);
+        assertThat(cpuSaved()).isGreaterThan(saved);
+        assertThatThrownBy(() -> authenticate("wrong")).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void userChangesInvalidateVerifiedCredentials() {
+        authenticate("secret");
+
+        userService.assignRoleToUser(USERNAME, "CREDENTIAL_READER");
+        double hits = hits();
+
+        assertThat(authenticate("secret").getAuthorities()).extracting("authority")
+                .containsExactly("ROLE_CREDENTIAL_READER");
+        assertThat(hits()).isEqualTo(hits);
+
+        userService.deleteUser(userRepository.findByUsername(USERNAME).orElseThrow().getId());
+        assertThatThrownBy(() -> authenticate("secret")).isInstanceOf(BadCredentialsException.class);
+    }
+
+    private Authentication authenticate(String password) {
+        return authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, password));
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tags("cache", "verifiedCredentials", "result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private double cpuSaved() {
+        return meterRegistry.get("security.credential-cache.cpu.saved").counter().count();
+    }
+}
@@ -0,0 +1,66 @@
+package ro.ticle.paula.spring.project.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import ro.ticle.paula.spring.project.entity.Course;
+import ro.ticle.paula.spring.project.entity.Student;
+import ro.ticle.paula.spring.project.helper.mother.CourseMother;
+import ro.ticle.paula.spring.project.helper.mother.StudentMother;
+import ro.ticle.paula.spring.project.repository.CourseRepository;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
+import ro.ticle.paula.spring.project.repository.StudentRepository;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EnrollmentControllerIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void bulkEnroll() throws Exception {
+        Course course = courseRepository.save(CourseMother.getCourse());
+        Student student = studentRepository.save(StudentMother.getStudent());
+        String ndjson = """
+                {"courseId": %1$d, "studentId": "%2$s"}
+                {"courseId": %1$d, "studentId": "%2$s"}
+                {"courseId": %1$d, "studentId": "%3$s"}
+                {"courseId": "oops"}
+                """.formatted(course.getId(), student.getId(), UUID.randomUUID());
+
+        mockMvc.perform(post("/v1/enrollments:bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson)
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0]").value("line 4: courseId and studentId are required"))
+                .andExpect(jsonPath("$.errors[1]").value("line 3: course or student not found"));
+
+        assertThat(enrollmentRepository.count()).isEqualTo(1L);
+    }
+}
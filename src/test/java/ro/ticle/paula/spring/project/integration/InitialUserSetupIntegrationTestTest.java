@@ -0,0 +1,83 @@
+package ro.ticle.paula.spring.project.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.service.RoleService;
+import ro.ticle.paula.spring.project.service.UserService;
+import ro.ticle.paula.spring.project.service.impl.InitialUserSetupService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Concurrent setups each commit their own transaction, so these tests run without the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InitialUserSetupIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername("admin").ifPresent(user -> userService.deleteUser(user.getId()));
+        if (roleRepository.existsByName("ADMIN")) {
+            roleService.deleteRoleByName("ADMIN");
+        }
+    }
+
+    @Test
+    void nodesStartingTogetherCreateTheAdminOnce() {
+        // The service is not a bean under the test profile, each instance stands in for one starting node
+        InitialUserSetupService setup = new InitialUserSetupService(userRepository, roleRepository, passwordEncoder);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> nodes = IntStream.range(0, 10)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    awaitQuietly(start);
+                    transactionTemplate.executeWithoutResult(status -> setup.init());
+                }))
+                .toList();
+        start.countDown();
+        nodes.forEach(CompletableFuture::join);
+
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*)
+                FROM users u
+                         JOIN users_roles ur ON ur.user_id = u.id
+                         JOIN roles r ON r.id = ur.role_id
+                WHERE u.username = 'admin' AND r.name = 'ADMIN'
+                """, Integer.class)).isEqualTo(1);
+        assertThat(passwordEncoder.matches("admin", userRepository.findByUsername("admin").orElseThrow().getPassword()))
+                .isTrue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
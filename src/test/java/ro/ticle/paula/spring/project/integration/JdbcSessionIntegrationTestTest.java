@@ -0,0 +1,119 @@
+package ro.ticle.paula.spring.project.integration;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.service.UserService;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sessions are written by their own transactions, so these tests run without the test transaction and clean up
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "session.store=jdbc")
+class JdbcSessionIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    private static final String USERNAME = "session.user";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JdbcIndexedSessionRepository jdbcIndexedSessionRepository;
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userService.registerUser(new UserRequest(USERNAME, "secret", Set.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM spring_session WHERE principal_name = ?", USERNAME);
+        userRepository.findByUsername(USERNAME).ifPresent(user -> userService.deleteUser(user.getId()));
+    }
+
+    @Test
+    void loginIsSharedThroughTheSessionTable() throws Exception {
+        Cookie session = login();
+
+        assertThat(sessionRows()).isEqualTo(1);
+        assertThat(sessionRegistry).isInstanceOf(SpringSessionBackedSessionRegistry.class);
+        mockMvc.perform(get("/v1/users").cookie(session))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unchangedSessionsAreNotWrittenBack() throws Exception {
+        Cookie session = login();
+        Long lastAccess = lastAccessTime();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/v1/users").cookie(session))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(lastAccessTime()).isEqualTo(lastAccess);
+    }
+
+    @Test
+    void secondLoginExpiresTheFirstSession() throws Exception {
+        Cookie first = login();
+        login();
+
+        mockMvc.perform(get("/v1/users").cookie(first))
+                .andExpect(content().string(containsString("expired")));
+        assertThat(sessionRegistry.getAllSessions(USERNAME, false)).hasSize(1);
+    }
+
+    @Test
+    void expiredSessionsAreCleanedUp() throws Exception {
+        login();
+        jdbcTemplate.update("UPDATE spring_session SET expiry_time = 0 WHERE principal_name = ?", USERNAME);
+
+        jdbcIndexedSessionRepository.cleanUpExpiredSessions();
+
+        assertThat(sessionRows()).isZero();
+    }
+
+    private Cookie login() throws Exception {
+        Cookie cookie = mockMvc.perform(formLogin().user(USERNAME).password("secret"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn()
+                .getResponse()
+                .getCookie("JSESSIONID");
+        assertThat(cookie).isNotNull();
+        return cookie;
+    }
+
+    private Integer sessionRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM spring_session WHERE principal_name = ?",
+                Integer.class, USERNAME);
+    }
+
+    private Long lastAccessTime() {
+        return jdbcTemplate.queryForObject("SELECT last_access_time FROM spring_session WHERE principal_name = ?",
+                Long.class, USERNAME);
+    }
+}
@@ -0,0 +1,108 @@
+package ro.ticle.paula.spring.project.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.model.request.LoginRequest;
+import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.model.response.TokenResponse;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.service.UserService;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Logins go through the cached user details, so the user must be committed rather than rolled back behind the cache
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginControllerIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    private static final String USERNAME = "token.user";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        userService.registerUser(new UserRequest(USERNAME, "secret", Set.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername(USERNAME).ifPresent(user -> userService.deleteUser(user.getId()));
+    }
+
+    @Test
+    void tokenAuthenticatesRequestsWithoutASession() throws Exception {
+        String token = login("secret").accessToken();
+
+        MvcResult result = mockMvc.perform(get("/v1/roles")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void loginWithWrongPasswordIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(USERNAME, "wrong"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        String token = login("secret").accessToken();
+
+        mockMvc.perform(get("/v1/roles")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.substring(0, token.length() - 2) + "xx"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE));
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithoutEncodingId() throws Exception {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.updatePassword(USERNAME, legacyHash));
+
+        login("secret");
+
+        String storedHash = userRepository.findByUsername(USERNAME).orElseThrow().getPassword();
+        assertThat(storedHash).startsWith("{bcrypt}$2a$04$").isNotEqualTo("{bcrypt}" + legacyHash);
+        login("secret");
+    }
+
+    private TokenResponse login(String password) throws Exception {
+        String body = mockMvc.perform(post("/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(USERNAME, password))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, TokenResponse.class);
+    }
+}
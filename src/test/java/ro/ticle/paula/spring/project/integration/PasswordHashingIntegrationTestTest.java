@@ -0,0 +1,123 @@
+package ro.ticle.paula.spring.project.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.config.OffloadingPasswordEncoder;
+import ro.ticle.paula.spring.project.model.request.LoginRequest;
+import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Logins go through the cached user details, so the user must be committed rather than rolled back behind the cache
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"security.password.hashing.threads=1", "security.password.hashing.queue-capacity=1"})
+class PasswordHashingIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    private static final String USERNAME = "hashing.user";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OffloadingPasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Future<?>> blockers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userService.registerUser(new UserRequest(USERNAME, "secret", Set.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        userRepository.findByUsername(USERNAME).ifPresent(user -> userService.deleteUser(user.getId()));
+    }
+
+    @Test
+    void formLoginIsUnavailableWhileTheHashingQueueIsFull() throws Exception {
+        saturateHashing();
+
+        mockMvc.perform(formLogin().user(USERNAME).password("secret"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(content().string(containsString("Too many password hashing requests")))
+                .andExpect(unauthenticated());
+
+        releaseHashing();
+
+        mockMvc.perform(formLogin().user(USERNAME).password("secret"))
+                .andExpect(authenticated());
+    }
+
+    @Test
+    void formLoginWithWrongPasswordStillRedirectsToTheLoginPage() throws Exception {
+        mockMvc.perform(formLogin().user(USERNAME).password("wrong"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login?error"))
+                .andExpect(unauthenticated());
+    }
+
+    @Test
+    void tokenLoginIsUnavailableWhileTheHashingQueueIsFull() throws Exception {
+        saturateHashing();
+
+        mockMvc.perform(post("/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(USERNAME, "secret"))))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    // One task holds the only hashing thread and a second one takes the only queue slot
+    private void saturateHashing() throws InterruptedException {
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(passwordEncoder, "executor");
+        CountDownLatch started = new CountDownLatch(1);
+        blockers.add(executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        }));
+        started.await();
+        blockers.add(executor.submit(() -> {
+            release.await();
+            return null;
+        }));
+    }
+
+    private void releaseHashing() throws Exception {
+        release.countDown();
+        for (Future<?> blocker : blockers) {
+            blocker.get();
+        }
+    }
+}
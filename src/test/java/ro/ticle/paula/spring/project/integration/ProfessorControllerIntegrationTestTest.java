@@ -1,13 +1,18 @@
 package ro.ticle.paula.spring.project.integration;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.PageRequest;
+import ro.ticle.paula.spring.project.entity.Course;
 import ro.ticle.paula.spring.project.entity.Department;
 import ro.ticle.paula.spring.project.entity.Professor;
+import ro.ticle.paula.spring.project.helper.StatementCounter;
 import ro.ticle.paula.spring.project.helper.mother.ProfessorMother;
+import ro.ticle.paula.spring.project.model.request.ProfessorRequest;
 import ro.ticle.paula.spring.project.repository.CourseRepository;
 import ro.ticle.paula.spring.project.repository.DepartmentRepository;
 import ro.ticle.paula.spring.project.repository.ProfessorRepository;
@@ -15,12 +20,15 @@ import ro.ticle.paula.spring.project.service.ProfessorService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ProfessorControllerIntegrationTestTest extends BaseControllerIntegrationTest {
@@ -33,6 +41,8 @@ class ProfessorControllerIntegrationTestTest extends BaseControllerIntegrationTe
     private DepartmentRepository departmentRepository;
     @Autowired
     private CourseRepository courseRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @BeforeEach
     void setUp() {
@@ -60,6 +70,21 @@ class ProfessorControllerIntegrationTestTest extends BaseControllerIntegrationTe
         assertThat(professorRepository.existsByEmail("test.professor@mail.com")).isTrue();
     }
 
+    @Test
+    void addProfessorBatchesCourseInserts() {
+        Set<String> titles = IntStream.rangeClosed(1, 12)
+                .mapToObj(i -> "Batched Course " + i)
+                .collect(Collectors.toSet());
+        StatementCounter statementCounter = new StatementCounter(entityManager);
+        statementCounter.reset();
+
+        professorService.addProfessor(new ProfessorRequest("Batched", "Professor", "batched.professor@mail.com",
+                "555-300-400", titles, "Computer Science"));
+
+        // Email check, department lookup, the professor and a single batch for all courses instead of one insert each
+        assertThat(statementCounter.count()).isEqualTo(4L);
+    }
+
     @Test
     void addProfessorWithInvalidEmail() throws Exception {
         String professorJson = new String(
@@ -111,6 +136,25 @@ class ProfessorControllerIntegrationTestTest extends BaseControllerIntegrationTe
         assertThat(professorRepository.findAllBy(PageRequest.of(0, 10))).isNotNull();
     }
 
+    @Test
+    void getProfessorsReturnsDepartmentSummary() throws Exception {
+        Department department = departmentRepository.save(new Department(null, "Mathematics", Set.of(), Set.of()));
+        Professor professor = ProfessorMother.getProfessor();
+        professor.setDepartment(department);
+        professorRepository.save(professor);
+        courseRepository.save(Course.builder().title("Algebra").professor(professor).department(department).build());
+
+        mockMvc.perform(get("/v1/professors")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].department.id").value(department.getId()))
+                .andExpect(jsonPath("$.content[0].department.name").value("Mathematics"))
+                .andExpect(jsonPath("$.content[0].department.professors").doesNotExist())
+                .andExpect(jsonPath("$.content[0].courses").doesNotExist());
+    }
+
     @Test
     void getProfessorById() throws Exception {
         Professor professor = ProfessorMother.getProfessor();
@@ -146,6 +190,22 @@ class ProfessorControllerIntegrationTestTest extends BaseControllerIntegrationTe
         assertThat(professorRepository.existsById(professor.getId())).isFalse();
     }
 
+    @Test
+    void deleteProfessorKeepsItsCourses() throws Exception {
+        Professor professor = professorRepository.save(ProfessorMother.getProfessor());
+        Course course = courseRepository.save(Course.builder().title("Taught Course").professor(professor).build());
+
+        mockMvc.perform(delete("/v1/professors/{id}", professor.getId())
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk());
+
+        entityManager.clear();
+        assertThat(professorRepository.existsById(professor.getId())).isFalse();
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getProfessor()).isNull();
+    }
+
     @Test
     void deleteProfessorNotFound() throws Exception {
         mockMvc.perform(delete("/v1/professors/{id}", "00000000-0000-0000-0000-000000000000")
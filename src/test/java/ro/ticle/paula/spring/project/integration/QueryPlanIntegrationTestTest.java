@@ -0,0 +1,423 @@
+package ro.ticle.paula.spring.project.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import ro.ticle.paula.spring.project.entity.UuidV7Generator;
+import ro.ticle.paula.spring.project.helper.StatementRecorder;
+import ro.ticle.paula.spring.project.helper.StatementRecorder.RecordedStatement;
+import ro.ticle.paula.spring.project.model.pagination.PageBounds;
+import ro.ticle.paula.spring.project.repository.CourseRepository;
+import ro.ticle.paula.spring.project.repository.DepartmentRepository;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
+import ro.ticle.paula.spring.project.repository.ProfessorRepository;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.SoftDeletePurgeRepository;
+import ro.ticle.paula.spring.project.repository.SoftDeletePurgeRepository.Step;
+import ro.ticle.paula.spring.project.repository.StudentImportRepository;
+import ro.ticle.paula.spring.project.repository.StudentProfileRepository;
+import ro.ticle.paula.spring.project.repository.StudentRepository;
+import ro.ticle.paula.spring.project.repository.TableStatisticsRepository;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository.NewUser;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository.NewUserRole;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plans every repository statement against a seeded copy of the schema and fails when a statement reads a large
+// table sequentially. The copy lives in its own schema and is dropped with the test transaction.
+class QueryPlanIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+    private static final long LARGE_TABLE_ROWS = 10_000;
+    private static final Pageable PAGE = PageRequest.of(1, 20);
+    private static final Limit LIMIT = Limit.of(20);
+    private static final int DEEP_PAGE = 10_000;
+    private static final int DEEP_PAGE_SIZE = 10;
+
+    private static final List<Class<?>> REPOSITORIES = List.of(CourseRepository.class, DepartmentRepository.class,
+            EnrollmentRepository.class, ProfessorRepository.class, RoleRepository.class, SoftDeletePurgeRepository.class,
+            StudentImportRepository.class, StudentProfileRepository.class, StudentRepository.class,
+            TableStatisticsRepository.class, UserProvisioningRepository.class, UserRepository.class);
+
+    // COPY and ANALYZE have no plan
+    private static final Set<String> NOT_PLANNED = Set.of(
+            "StudentImportRepository.copyToStaging",
+            "StudentImportRepository.analyzeStaging");
+
+    // Unordered pages read the table in storage order and stop after the page, their counts read the whole table
+    private static final Map<String, Set<String>> FULL_SCANS = Map.of(
+            "CourseRepository.findAllBy", Set.of("courses"),
+            "CourseRepository.findSliceBy", Set.of("courses"),
+            "ProfessorRepository.findAllBy", Set.of("professors"),
+            "ProfessorRepository.findSliceBy", Set.of("professors"),
+            "StudentRepository.findAllBy", Set.of("students"),
+            "StudentRepository.findSliceBy", Set.of("students"),
+            "UserRepository.findAllUsers", Set.of("users"));
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private SoftDeletePurgeRepository softDeletePurgeRepository;
+    @Autowired
+    private StudentImportRepository studentImportRepository;
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private TableStatisticsRepository tableStatisticsRepository;
+    @Autowired
+    private UserProvisioningRepository userProvisioningRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // The test transaction has to run on a recorded connection
+    @BeforeTransaction
+    void startRecording() {
+        RECORDER.start();
+    }
+
+    @AfterTransaction
+    void stopRecording() {
+        RECORDER.stop();
+    }
+
+    @Test
+    void everyRepositoryQueryIsPlanned() {
+        Set<String> declared = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> Modifier.isPublic(method.getModifiers()))
+                        .filter(method -> !Modifier.isStatic(method.getModifiers()) && !method.isSynthetic())
+                        .map(method -> repository.getSimpleName() + "." + method.getName()))
+                .filter(name -> !NOT_PLANNED.contains(name))
+                .collect(Collectors.toSet());
+
+        assertThat(queries().keySet()).containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    @Test
+    void largeTablesAreReadThroughIndexes() throws IOException {
+        Map<String, List<RecordedStatement>> recorded = new LinkedHashMap<>();
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+        queries().forEach((name, query) -> {
+            RECORDER.clear();
+            query.run();
+            recorded.put(name, RECORDER.statements());
+        });
+
+        jdbcTemplate.execute(new ClassPathResource("sql/query-plan-dataset.sql").getContentAsString(StandardCharsets.UTF_8));
+        jdbcTemplate.execute("SET LOCAL search_path TO plan_check, public");
+        Set<String> largeTables = new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_class c
+                         JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'plan_check'
+                  AND c.relkind = 'r'
+                  AND c.reltuples >= ?
+                """, String.class, LARGE_TABLE_ROWS));
+        assertThat(largeTables).contains("students", "enrollment", "courses", "professors", "departments", "users");
+
+        List<String> problems = new ArrayList<>();
+        recorded.forEach((name, statements) -> {
+            assertThat(statements).as(name).isNotEmpty();
+            for (RecordedStatement statement : statements) {
+                for (String table : sequentialScans(explain(statement))) {
+                    if (largeTables.contains(table) && !FULL_SCANS.getOrDefault(name, Set.of()).contains(table)) {
+                        problems.add(name + " scans " + table + ": " + statement.sql());
+                    }
+                }
+            }
+        });
+        // Deleting or updating a referenced row looks up the referencing rows with this statement
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode TO force_generic_plan");
+        jdbcTemplate.queryForList("""
+                SELECT r.relname AS referencing, a.attname AS referencing_column
+                FROM pg_constraint c
+                         JOIN pg_class r ON r.oid = c.conrelid
+                         JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+                WHERE c.contype = 'f'
+                  AND c.connamespace = 'public'::regnamespace
+                """).forEach(foreignKey -> {
+            String lookup = "SELECT 1 FROM ONLY %s x WHERE %s = $1 FOR KEY SHARE OF x"
+                    .formatted(foreignKey.get("referencing"), foreignKey.get("referencing_column"));
+            for (String table : sequentialScans(explainGeneric(lookup))) {
+                if (largeTables.contains(table)) {
+                    problems.add("Foreign key lookup scans " + table + ": " + lookup);
+                }
+            }
+        });
+
+        assertThat(problems).isEmpty();
+    }
+
+    // Page 10,000 of the listing, through the offset slice and through a cursor holding the last row of page 9,999
+    @Test
+    void deepKeysetPageReadsOnlyThePage() {
+        int offset = DEEP_PAGE * DEEP_PAGE_SIZE;
+        jdbcTemplate.update("""
+                INSERT INTO students (id, first_name, last_name, email)
+                SELECT md5('deep' || g)::uuid, 'First ' || g, 'Deep ' || lpad(g::text, 6, '0'), 'deep' || g || '@mail.com'
+                FROM generate_series(1, ?) g
+                """, offset + DEEP_PAGE_SIZE);
+        jdbcTemplate.execute("ANALYZE students");
+        Map<String, Object> cursor = jdbcTemplate.queryForMap(
+                "SELECT last_name, id FROM students ORDER BY last_name, id OFFSET ? LIMIT 1", offset - 1);
+
+        JsonNode offsetPlan = explainAnalyze(recorded(
+                () -> studentRepository.findSliceBy(PageBounds.pageRequest(DEEP_PAGE, DEEP_PAGE_SIZE))));
+        JsonNode keysetPlan = explainAnalyze(recorded(() -> studentRepository.findKeysetPageAfter(
+                (String) cursor.get("last_name"), (UUID) cursor.get("id"), PageBounds.keysetLimit(DEEP_PAGE_SIZE))));
+
+        assertThat(rowsRead(offsetPlan)).isGreaterThanOrEqualTo(offset);
+        assertThat(rowsRead(keysetPlan)).isLessThanOrEqualTo(DEEP_PAGE_SIZE + 1);
+    }
+
+    private Map<String, Runnable> queries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        UUID missingId = UUID.randomUUID();
+
+        String course = CourseRepository.class.getSimpleName() + ".";
+        queries.put(course + "findByTitle", () -> courseRepository.findByTitle("Course 5"));
+        queries.put(course + "findByTitleIn", () -> courseRepository.findByTitleIn(List.of("Course 5", "Course 6")));
+        queries.put(course + "findAllBy", () -> courseRepository.findAllBy(PAGE));
+        queries.put(course + "findSliceBy", () -> courseRepository.findSliceBy(PAGE));
+        queries.put(course + "findCourseById", () -> courseRepository.findCourseById(5L));
+        queries.put(course + "insertMissingTitles", () -> courseRepository.insertMissingTitles(new String[]{"Plan check"}));
+        queries.put(course + "findFirstKeysetPage", () -> courseRepository.findFirstKeysetPage(LIMIT));
+        queries.put(course + "findKeysetPageAfter", () -> courseRepository.findKeysetPageAfter("Course 5", 5L, LIMIT));
+        queries.put(course + "unassignProfessor", () -> courseRepository.unassignProfessor(missingId));
+        queries.put(course + "softDeleteById", () -> courseRepository.softDeleteById(-1L, Instant.now()));
+
+        queries.put(DepartmentRepository.class.getSimpleName() + ".findByName",
+                () -> departmentRepository.findByName("Department 5"));
+
+        String enrollment = EnrollmentRepository.class.getSimpleName() + ".";
+        queries.put(enrollment + "enrollStudent", () -> enrollmentRepository.enrollStudent(missingId, new Long[0]));
+        queries.put(enrollment + "insertBatch",
+                () -> enrollmentRepository.insertBatch(new Long[]{5L}, new UUID[]{missingId}));
+        queries.put(enrollment + "findCoursesByStudentIds",
+                () -> enrollmentRepository.findCoursesByStudentIds(List.of(missingId, missingId)));
+
+        String professor = ProfessorRepository.class.getSimpleName() + ".";
+        queries.put(professor + "existsByEmail", () -> professorRepository.existsByEmail("professor5@mail.com"));
+        queries.put(professor + "findAllBy", () -> professorRepository.findAllBy(PAGE));
+        queries.put(professor + "findSliceBy", () -> professorRepository.findSliceBy(PAGE));
+        queries.put(professor + "findProfessorById", () -> professorRepository.findProfessorById(missingId));
+        queries.put(professor + "findFirstKeysetPage", () -> professorRepository.findFirstKeysetPage(LIMIT));
+        queries.put(professor + "findKeysetPageAfter",
+                () -> professorRepository.findKeysetPageAfter("Last 5", missingId, LIMIT));
+        queries.put(professor + "softDeleteById", () -> professorRepository.softDeleteById(missingId, Instant.now()));
+
+        String role = RoleRepository.class.getSimpleName() + ".";
+        queries.put(role + "findByName", () -> roleRepository.findByName("ROLE_5"));
+        queries.put(role + "existsByName", () -> roleRepository.existsByName("ROLE_5"));
+        queries.put(role + "findAllRoles", () -> roleRepository.findAllRoles());
+        queries.put(role + "insertIfAbsent", () -> roleRepository.insertIfAbsent("PLAN_CHECK"));
+        queries.put(role + "deleteRoleByName", () -> roleRepository.deleteRoleByName("MISSING"));
+
+        String studentImport = StudentImportRepository.class.getSimpleName() + ".";
+        queries.put(studentImport + "removeDuplicateEmails",
+                () -> studentImportRepository.removeDuplicateEmails(missingId));
+        queries.put(studentImport + "mergeStudents", () -> studentImportRepository.mergeStudents(missingId));
+        queries.put(studentImport + "mergeProfiles", () -> studentImportRepository.mergeProfiles(missingId));
+        queries.put(studentImport + "mergeCourses", () -> studentImportRepository.mergeCourses(missingId));
+        queries.put(studentImport + "mergeEnrollments", () -> studentImportRepository.mergeEnrollments(missingId));
+        queries.put(studentImport + "clearStaging", () -> studentImportRepository.clearStaging(missingId));
+
+        String studentProfile = StudentProfileRepository.class.getSimpleName() + ".";
+        queries.put(studentProfile + "findByStudentId", () -> studentProfileRepository.findByStudentId(missingId));
+
+        String student = StudentRepository.class.getSimpleName() + ".";
+        queries.put(student + "existsByEmail", () -> studentRepository.existsByEmail("student5@mail.com"));
+        queries.put(student + "findAllBy", () -> studentRepository.findAllBy(PAGE));
+        queries.put(student + "findSliceBy", () -> studentRepository.findSliceBy(PAGE));
+        queries.put(student + "findFirstKeysetPage", () -> studentRepository.findFirstKeysetPage(LIMIT));
+        queries.put(student + "findKeysetPageAfter",
+                () -> studentRepository.findKeysetPageAfter("Last 5", missingId, LIMIT));
+        queries.put(student + "findStudentById", () -> studentRepository.findStudentById(missingId));
+        queries.put(student + "softDeleteByIds",
+                () -> studentRepository.softDeleteByIds(List.of(missingId), Instant.now()));
+
+        String purge = SoftDeletePurgeRepository.class.getSimpleName() + ".";
+        queries.put(purge + "setLockTimeout", () -> softDeletePurgeRepository.setLockTimeout(Duration.ofSeconds(1)));
+        queries.put(purge + "lockBatch",
+                () -> Arrays.stream(Step.values()).forEach(step -> softDeletePurgeRepository.lockBatch(step, 20)));
+        queries.put(purge + "deleteBatch", () -> Arrays.stream(Step.values())
+                .forEach(step -> softDeletePurgeRepository.deleteBatch(step, List.of("(0,0)"))));
+        queries.put(purge + "countBacklog",
+                () -> Arrays.stream(Step.values()).forEach(softDeletePurgeRepository::countBacklog));
+
+        queries.put(TableStatisticsRepository.class.getSimpleName() + ".estimatedRowCount",
+                () -> tableStatisticsRepository.estimatedRowCount("students"));
+
+        String provisioning = UserProvisioningRepository.class.getSimpleName() + ".";
+        queries.put(provisioning + "findExistingUsernames",
+                () -> userProvisioningRepository.findExistingUsernames(new String[]{"user5", "user6"}));
+        queries.put(provisioning + "insertUsers", () -> userProvisioningRepository.insertUsers(
+                List.of(new NewUser(UuidV7Generator.next(), "plan.check.provisioned", "password"))));
+        queries.put(provisioning + "insertUserRoles",
+                () -> userProvisioningRepository.insertUserRoles(List.of(new NewUserRole(missingId, 5L))));
+        queries.put(provisioning + "countUsers", () -> userProvisioningRepository.countUsers(new UUID[]{missingId}));
+
+        String user = UserRepository.class.getSimpleName() + ".";
+        queries.put(user + "findByUsername", () -> userRepository.findByUsername("user5"));
+        queries.put(user + "findUsernameById", () -> userRepository.findUsernameById(missingId));
+        queries.put(user + "findUsernamesByRoleName", () -> userRepository.findUsernamesByRoleName("ROLE_5"));
+        queries.put(user + "findUserById", () -> userRepository.findUserById(missingId));
+        queries.put(user + "findAllUsers", () -> userRepository.findAllUsers(PAGE));
+        queries.put(user + "findUserSlice", () -> userRepository.findUserSlice(PAGE));
+        queries.put(user + "findAllUsersWithRole", () -> userRepository.findAllUsersWithRole("ROLE_5", PAGE));
+        queries.put(user + "findUserSliceWithRole", () -> userRepository.findUserSliceWithRole("ROLE_5", PAGE));
+        queries.put(user + "countWithRole", () -> userRepository.countWithRole("ROLE_5"));
+        queries.put(user + "findFirstKeysetPage", () -> userRepository.findFirstKeysetPage(LIMIT));
+        queries.put(user + "findKeysetPageAfter", () -> userRepository.findKeysetPageAfter("user5", missingId, LIMIT));
+        queries.put(user + "findFirstKeysetPageWithRole", () -> userRepository.findFirstKeysetPageWithRole("ROLE_5", LIMIT));
+        queries.put(user + "findKeysetPageAfterWithRole",
+                () -> userRepository.findKeysetPageAfterWithRole("ROLE_5", "user5", missingId, LIMIT));
+        queries.put(user + "grantRole", () -> userRepository.grantRole(new String[]{"plan.check.missing"}, 5L));
+        queries.put(user + "revokeRole", () -> userRepository.revokeRole(new String[]{"plan.check.missing"}, 5L));
+        queries.put(user + "existsByUsername", () -> userRepository.existsByUsername("user5"));
+        queries.put(user + "tryTransactionLock", () -> userRepository.tryTransactionLock("plan-check"));
+        queries.put(user + "insertIfAbsentWithRole", () -> userRepository.insertIfAbsentWithRole(UuidV7Generator.next(),
+                "plan.check.created", "password", "PLAN_CHECK_MISSING"));
+        queries.put(user + "updatePassword", () -> userRepository.updatePassword("plan.check.missing", "password"));
+        queries.put(user + "deleteById", () -> userRepository.deleteById(missingId));
+        return queries;
+    }
+
+    // Planned with the values the repository bound, as the server plans the statement when it runs
+    private JsonNode explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                statement.bind(explain);
+                return readPlan(explain);
+            }
+        });
+    }
+
+    private RecordedStatement recorded(Runnable query) {
+        RECORDER.clear();
+        query.run();
+        assertThat(RECORDER.statements()).hasSize(1);
+        return RECORDER.statements().getFirst();
+    }
+
+    // Runs the statement, the plan then carries the rows each node actually produced
+    private JsonNode explainAnalyze(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement(
+                    "EXPLAIN (ANALYZE, FORMAT JSON) " + statement.sql())) {
+                statement.bind(explain);
+                return readPlan(explain);
+            }
+        });
+    }
+
+    // Planned without parameter values, as the referential integrity triggers plan the lookup once per session
+    private JsonNode explainGeneric(String sql) {
+        jdbcTemplate.execute("PREPARE generic_lookup AS " + sql);
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+                try (PreparedStatement explain = connection.prepareStatement(
+                        "EXPLAIN (FORMAT JSON) EXECUTE generic_lookup(NULL)")) {
+                    return readPlan(explain);
+                }
+            });
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE generic_lookup");
+        }
+    }
+
+    private JsonNode readPlan(PreparedStatement explain) throws SQLException {
+        try (ResultSet resultSet = explain.executeQuery()) {
+            resultSet.next();
+            return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Rows produced by the table and index scans, what a query reads before any limit applies
+    private static long rowsRead(JsonNode plan) {
+        long rows = plan.has("Relation Name")
+                ? plan.path("Actual Rows").asLong() * plan.path("Actual Loops").asLong()
+                : 0;
+        for (JsonNode child : plan.path("Plans")) {
+            rows += rowsRead(child);
+        }
+        return rows;
+    }
+
+    private static List<String> sequentialScans(JsonNode plan) {
+        List<String> tables = new ArrayList<>();
+        if ("Seq Scan".equals(plan.path("Node Type").asText())) {
+            tables.add(plan.path("Relation Name").asText());
+        }
+        plan.path("Plans").forEach(child -> tables.addAll(sequentialScans(child)));
+        return tables;
+    }
+}
@@ -0,0 +1,90 @@
+package ro.ticle.paula.spring.project.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.entity.Department;
+import ro.ticle.paula.spring.project.model.projection.RoleProjection;
+import ro.ticle.paula.spring.project.model.request.ProfessorRequest;
+import ro.ticle.paula.spring.project.model.request.RoleRequest;
+import ro.ticle.paula.spring.project.repository.DepartmentRepository;
+import ro.ticle.paula.spring.project.repository.ProfessorRepository;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.service.ProfessorService;
+import ro.ticle.paula.spring.project.service.RoleService;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cached entries are only shared once their transaction commits, so these tests run without the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private ProfessorService professorService;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void roleLookupsAreServedFromCacheUntilBulkDelete() {
+        roleService.createRole(new RoleRequest("CACHED_ROLE"));
+        roleRepository.findByName("CACHED_ROLE");
+        roleRepository.findAllRoles();
+        statistics.clear();
+
+        assertThat(roleRepository.findByName("CACHED_ROLE")).isPresent();
+        assertThat(roleRepository.findAllRoles()).extracting(RoleProjection::getName).contains("CACHED_ROLE");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2L);
+
+        roleService.deleteRoleByName("CACHED_ROLE");
+
+        assertThat(roleRepository.findByName("CACHED_ROLE")).isEmpty();
+        assertThat(roleRepository.findAllRoles()).extracting(RoleProjection::getName).doesNotContain("CACHED_ROLE");
+    }
+
+    @Test
+    void addProfessorResolvesDepartmentFromCache() {
+        Department department = departmentRepository.save(Department.builder().name("Cached Department").build());
+        departmentRepository.findByName("Cached Department");
+        statistics.clear();
+        try {
+            professorService.addProfessor(new ProfessorRequest("Cached", "Professor", "cached.professor@mail.com",
+                    "555-200-300", Set.of(), "Cached Department"));
+
+            assertThat(meterRegistry.get("hibernate.cache.query.requests")
+                    .tag("result", "hit")
+                    .functionCounter()
+                    .count()).isEqualTo(1.0);
+        } finally {
+            professorRepository.findAll().stream()
+                    .filter(professor -> professor.getEmail().equals("cached.professor@mail.com"))
+                    .forEach(professorRepository::delete);
+            departmentRepository.delete(department);
+        }
+    }
+}
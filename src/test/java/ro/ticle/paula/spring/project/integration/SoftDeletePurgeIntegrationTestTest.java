@@ -0,0 +1,199 @@
+package ro.ticle.paula.spring.project.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.entity.Course;
+import ro.ticle.paula.spring.project.entity.Professor;
+import ro.ticle.paula.spring.project.entity.Student;
+import ro.ticle.paula.spring.project.helper.mother.ProfessorMother;
+import ro.ticle.paula.spring.project.model.request.StudentRequest;
+import ro.ticle.paula.spring.project.repository.CourseRepository;
+import ro.ticle.paula.spring.project.repository.ProfessorRepository;
+import ro.ticle.paula.spring.project.repository.StudentProfileRepository;
+import ro.ticle.paula.spring.project.repository.StudentRepository;
+import ro.ticle.paula.spring.project.service.CourseService;
+import ro.ticle.paula.spring.project.service.ProfessorService;
+import ro.ticle.paula.spring.project.service.StudentService;
+import ro.ticle.paula.spring.project.service.impl.SoftDeletePurgeService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {"purge.batch-size=2", "purge.batch-delay=0ms", "purge.lock-timeout=200ms"})
+class SoftDeletePurgeIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private ProfessorService professorService;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private SoftDeletePurgeService softDeletePurgeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void deletedStudentIsHiddenAndItsEmailCanBeReused() {
+        studentService.addStudent(new StudentRequest("Ana", "Pop", "ana.pop@mail.com",
+                Set.of("Algebra"), "Main Street 1", "0700000001"));
+        UUID id = studentRepository.findAll().getFirst().getId();
+
+        studentService.deleteStudent(id);
+        entityManager.clear();
+
+        assertThat(studentRepository.findById(id)).isEmpty();
+        assertThat(studentProfileRepository.findByStudentId(id)).isEmpty();
+        assertThat(studentRepository.existsByEmail("ana.pop@mail.com")).isFalse();
+        assertThat(courseRepository.findByTitle("Algebra").orElseThrow().getStudents()).isEmpty();
+
+        studentService.addStudent(new StudentRequest("Ana", "Pop", "ana.pop@mail.com",
+                Set.of("Algebra"), "Main Street 1", "0700000001"));
+
+        assertThat(studentRepository.existsByEmail("ana.pop@mail.com")).isTrue();
+        assertThat(rows("SELECT count(*) FROM students WHERE email = 'ana.pop@mail.com'")).isEqualTo(2);
+    }
+
+    @Test
+    void deletedCourseTitleCanBeReused() {
+        Course course = courseRepository.save(Course.builder().title("Algebra").build());
+
+        courseService.deleteCourse(course.getId());
+
+        assertThat(courseRepository.findByTitle("Algebra")).isEmpty();
+        assertThat(courseRepository.insertMissingTitles(new String[]{"Algebra"})).hasSize(1);
+    }
+
+    @Test
+    void purgeRemovesDeletedRowsInBatches() {
+        for (int i = 0; i < 3; i++) {
+            studentService.addStudent(new StudentRequest("First" + i, "Last" + i, "student" + i + "@mail.com",
+                    Set.of("Algebra", "Biology"), "Main Street " + i, "070000000" + i));
+        }
+        Professor professor = professorRepository.save(ProfessorMother.getProfessor());
+        Course chemistry = courseRepository.save(Course.builder().title("Chemistry").professor(professor).build());
+        // The deleted course keeps its professor, so the professor is only purged after the course
+        courseService.deleteCourse(chemistry.getId());
+        professorService.deleteProfessor(professor.getId());
+        courseService.deleteCourse(courseRepository.findByTitle("Biology").orElseThrow().getId());
+        studentService.deleteStudents(studentRepository.findAll().stream().map(Student::getId).toList());
+        entityManager.flush();
+        double studentEnrollments = purged("STUDENT_ENROLLMENTS");
+        double students = purged("STUDENTS");
+
+        softDeletePurgeService.purge();
+
+        assertThat(purged("STUDENT_ENROLLMENTS") - studentEnrollments).isEqualTo(3);
+        assertThat(purged("STUDENTS") - students).isEqualTo(3);
+        assertThat(rows("SELECT count(*) FROM enrollment")).isZero();
+        assertThat(rows("SELECT count(*) FROM student_profiles")).isZero();
+        assertThat(rows("SELECT count(*) FROM students")).isZero();
+        assertThat(rows("SELECT count(*) FROM courses")).isEqualTo(1);
+        assertThat(rows("SELECT count(*) FROM professors")).isZero();
+        for (String step : List.of("COURSE_ENROLLMENTS", "STUDENT_ENROLLMENTS", "STUDENTS", "COURSES", "PROFESSORS")) {
+            assertThat(meterRegistry.get("purge.backlog").tag("step", step).gauge().value()).as(step).isZero();
+        }
+    }
+
+    // Runs without the test transaction so the lock is held by a second connection, the purge removes the rows
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void purgeSkipsRowsLockedByAnotherTransaction() throws Exception {
+        UUID locked = deletedStudent("locked.student@mail.com");
+        UUID free = deletedStudent("free.student@mail.com");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock = connection.prepareStatement("SELECT 1 FROM students WHERE id = ? FOR UPDATE")) {
+                lock.setObject(1, locked);
+                lock.executeQuery().close();
+            }
+
+            softDeletePurgeService.purge();
+
+            assertThat(exists(locked)).isTrue();
+            assertThat(exists(free)).isFalse();
+            connection.rollback();
+        }
+
+        softDeletePurgeService.purge();
+
+        assertThat(exists(locked)).isFalse();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void purgeGivesUpWhenItCannotLockTheTable() throws Exception {
+        UUID id = deletedStudent("blocked.student@mail.com");
+        double timeouts = meterRegistry.get("purge.lock.timeouts").tag("step", "STUDENTS").counter().count();
+        double waited = meterRegistry.get("purge.lock.wait").tag("step", "STUDENTS").timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            // Conflicts with FOR UPDATE but not with plain reads, the backlog is still counted
+            connection.createStatement().execute("LOCK TABLE students IN EXCLUSIVE MODE");
+
+            softDeletePurgeService.purge();
+
+            connection.rollback();
+        }
+
+        assertThat(meterRegistry.get("purge.lock.timeouts").tag("step", "STUDENTS").counter().count())
+                .isEqualTo(timeouts + 1);
+        assertThat(meterRegistry.get("purge.lock.wait").tag("step", "STUDENTS").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(waited + 200);
+        assertThat(exists(id)).isTrue();
+
+        softDeletePurgeService.purge();
+
+        assertThat(exists(id)).isFalse();
+    }
+
+    private UUID deletedStudent(String email) {
+        UUID id = studentRepository.save(Student.builder().firstName("Deleted").lastName("Student").email(email)
+                .build()).getId();
+        studentService.deleteStudent(id);
+        return id;
+    }
+
+    private boolean exists(UUID studentId) {
+        return rows("SELECT count(*) FROM students WHERE id = ?", studentId) > 0;
+    }
+
+    private long rows(String countQuery, Object... args) {
+        return jdbcTemplate.queryForObject(countQuery, Long.class, args);
+    }
+
+    private double purged(String step) {
+        return meterRegistry.get("purge.rows").tag("step", step).counter().count();
+    }
+}
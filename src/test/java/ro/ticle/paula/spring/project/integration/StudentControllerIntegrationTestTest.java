@@ -1,24 +1,62 @@
 package ro.ticle.paula.spring.project.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.config.TokenConfig;
+import ro.ticle.paula.spring.project.entity.Course;
+import ro.ticle.paula.spring.project.entity.Department;
+import ro.ticle.paula.spring.project.entity.Enrollment;
+import ro.ticle.paula.spring.project.entity.EnrollmentId;
+import ro.ticle.paula.spring.project.entity.Professor;
 import ro.ticle.paula.spring.project.entity.Student;
+import ro.ticle.paula.spring.project.helper.StatementCounter;
 import ro.ticle.paula.spring.project.helper.mother.StudentMother;
+import ro.ticle.paula.spring.project.model.request.StudentDeleteRequest;
+import ro.ticle.paula.spring.project.model.request.StudentRequest;
+import ro.ticle.paula.spring.project.model.response.BulkStudentDeleteResponse;
 import ro.ticle.paula.spring.project.repository.CourseRepository;
+import ro.ticle.paula.spring.project.repository.DepartmentRepository;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
+import ro.ticle.paula.spring.project.repository.ProfessorRepository;
 import ro.ticle.paula.spring.project.repository.StudentRepository;
 import ro.ticle.paula.spring.project.service.StudentService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class StudentControllerIntegrationTestTest extends BaseControllerIntegrationTest {
@@ -29,11 +67,30 @@ class StudentControllerIntegrationTestTest extends BaseControllerIntegrationTest
     private StudentRepository studentRepository;
     @Autowired
     private CourseRepository courseRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private JwtEncoder jwtEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
 
     @BeforeEach
     void setUp() {
         courseRepository.deleteAll();
         studentRepository.deleteAll();
+        statementCounter = new StatementCounter(entityManager);
     }
 
     @Test
@@ -103,6 +160,63 @@ class StudentControllerIntegrationTestTest extends BaseControllerIntegrationTest
         assertThat(studentRepository.findAllBy(PageRequest.of(0, 10))).isNotNull();
     }
 
+    @Test
+    void getStudentsLoadsCoursesWithOneQueryPerPage() throws Exception {
+        Department department = departmentRepository.save(Department.builder().name("Listing Department").build());
+        Professor professor = professorRepository.save(Professor.builder()
+                .firstName("Listing")
+                .lastName("Professor")
+                .email("listing.professor@mail.com")
+                .phoneNumber("555-000-111")
+                .build());
+        List<Course> courses = courseRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Course.builder()
+                        .title("Listing Course " + i)
+                        .professor(professor)
+                        .department(department)
+                        .build())
+                .toList());
+        List<Student> students = studentRepository.saveAll(IntStream.range(0, 50)
+                .mapToObj(i -> Student.builder()
+                        .firstName("First " + i)
+                        .lastName("Last " + i)
+                        .email("listing" + i + "@mail.com")
+                        .build())
+                .toList());
+        enrollmentRepository.saveAllAndFlush(students.stream()
+                .flatMap(student -> courses.stream().limit(2)
+                        .map(course -> new Enrollment(new EnrollmentId(course.getId(), student.getId()))))
+                .toList());
+        statementCounter.reset();
+
+        mockMvc.perform(get("/v1/students")
+                        .param("size", "50")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[49].courses.length()").value(2))
+                .andExpect(jsonPath("$.content[0].courses[0].title").value("Listing Course 0"));
+
+        // student page, total count and one lookup for the courses of the whole page
+        assertThat(statementCounter.count()).isEqualTo(3L);
+
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        professorRepository.delete(professor);
+        departmentRepository.delete(department);
+    }
+
+    @Test
+    void getStudentsAfterWithEmptyPage() throws Exception {
+        mockMvc.perform(get("/v1/students")
+                        .param("after", "")
+                        .param("size", "0")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getStudentById() throws Exception {
         Student student = StudentMother.getStudent();
@@ -138,6 +252,72 @@ class StudentControllerIntegrationTestTest extends BaseControllerIntegrationTest
         assertThat(studentRepository.existsById(student.getId())).isFalse();
     }
 
+    @Test
+    void deleteStudentsHidesThemUntilPurged() throws Exception {
+        studentService.addStudent(new StudentRequest("Ana", "Pop", "ana.pop@mail.com",
+                Set.of("Algebra", "Biology"), "Main Street 1", "0700000001"));
+        studentService.addStudent(new StudentRequest("Dan", "Ionescu", "dan.ionescu@mail.com",
+                Set.of("Algebra"), "Main Street 2", "0700000002"));
+        List<UUID> ids = studentRepository.findAll().stream().map(Student::getId).toList();
+        statementCounter.reset();
+
+        mockMvc.perform(post("/v1/students/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new StudentDeleteRequest(List.of(ids.get(0), ids.get(1), UUID.randomUUID()))))
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.notFound").value(1));
+
+        assertThat(statementCounter.count()).isEqualTo(1L);
+        assertThat(studentRepository.count()).isZero();
+        // Removed by the purge job, see SoftDeletePurgeIntegrationTestTest
+        assertThat(enrollmentRepository.count()).isEqualTo(3L);
+    }
+
+    @Test
+    void deleteStudentsWithoutIds() throws Exception {
+        mockMvc.perform(post("/v1/students/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
+    // Goes through the embedded Tomcat rather than MockMvc, which would not apply its request size limits
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deleteStudentsAcceptsAsManyIdsAsTheCap() {
+        List<UUID> ids = new ArrayList<>(studentRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Student.builder()
+                        .firstName("Cap " + i)
+                        .lastName("Student")
+                        .email("cap.student" + i + "@mail.com")
+                        .build())
+                .toList()).stream().map(Student::getId).toList());
+        while (ids.size() < 1000) {
+            ids.add(UUID.randomUUID());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(adminToken());
+
+        try {
+            ResponseEntity<BulkStudentDeleteResponse> response = restTemplate.postForEntity("/v1/students/delete",
+                    new HttpEntity<>(new StudentDeleteRequest(ids), headers), BulkStudentDeleteResponse.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo(new BulkStudentDeleteResponse(3, 997));
+        } finally {
+            jdbcTemplate.update("DELETE FROM students WHERE email LIKE 'cap.student%'");
+        }
+    }
+
     @Test
     void deleteStudentNotFound() throws Exception {
         mockMvc.perform(delete("/v1/students/{id}", "00000000-0000-0000-0000-000000000000")
@@ -146,4 +326,80 @@ class StudentControllerIntegrationTestTest extends BaseControllerIntegrationTest
                 .andDo(log())
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void addStudentIntoPopulatedCourseDoesNotLoadItsStudents() {
+        Course course = courseRepository.save(Course.builder().title("Popular Course").build());
+        List<Student> students = IntStream.range(0, 200)
+                .mapToObj(i -> Student.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("student" + i + "@mail.com")
+                        .build())
+                .toList();
+        studentRepository.saveAll(students);
+        enrollmentRepository.saveAllAndFlush(students.stream()
+                .map(student -> new Enrollment(new EnrollmentId(course.getId(), student.getId())))
+                .toList());
+        entityManager.clear();
+        statementCounter.reset();
+
+        studentService.addStudent(StudentRequest.builder()
+                .firstName("New")
+                .lastName("Student")
+                .email("new.student@mail.com")
+                .courseTitles(Set.of("Popular Course"))
+                .address("123 Test Street")
+                .phoneNumber("123-456-7890")
+                .build());
+
+        // email check, course lookup, student insert, profile insert and one enrollment insert
+        assertThat(statementCounter.count()).isEqualTo(5L);
+        assertThat(Hibernate.isInitialized(entityManager.find(Course.class, course.getId()).getStudents())).isFalse();
+        assertThat(enrollmentRepository.count()).isEqualTo(201L);
+    }
+
+    @Test
+    void importStudents() throws Exception {
+        studentRepository.saveAndFlush(StudentMother.getStudent());
+        String csv = """
+                firstName,lastName,email,address,phoneNumber,courseTitles
+                Ana,Pop,ana.pop@mail.com,Street 1,555-1,Algebra;Geometry
+                Ion,Ionescu,ion@mail.com,Street 2,555-2,Algebra
+                Dup,Licate,test.student@mail.com,Street 3,555-3,Algebra
+                Bad,Email,not-an-email,Street 4,555-4,Algebra
+                """;
+
+        mockMvc.perform(post("/v1/students/import")
+                        .contentType("text/csv")
+                        .content(csv)
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(2));
+
+        assertThat(studentRepository.existsByEmail("ana.pop@mail.com")).isTrue();
+        assertThat(courseRepository.findByTitle("Geometry")).isPresent();
+        assertThat(enrollmentRepository.count()).isEqualTo(3L);
+        // Saved through Hibernate and through the import staging table respectively, both ids are time ordered
+        Set<String> emails = Set.of("test.student@mail.com", "ana.pop@mail.com", "ion@mail.com");
+        assertThat(studentRepository.findAll().stream()
+                .filter(student -> emails.contains(student.getEmail()))
+                .map(student -> student.getId().version())
+                .toList()).isEqualTo(List.of(7, 7, 7));
+    }
+
+    private String adminToken() {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("testuser")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(60))
+                .claim(TokenConfig.ROLES_CLAIM, List.of("ADMIN"))
+                .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+}
@@ -1,25 +1,35 @@
 package ro.ticle.paula.spring.project.integration;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.entity.User;
+import ro.ticle.paula.spring.project.helper.StatementCounter;
 import ro.ticle.paula.spring.project.repository.RoleRepository;
 import ro.ticle.paula.spring.project.repository.UserRepository;
 import ro.ticle.paula.spring.project.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class UserControllerIntegrationTestTest extends BaseControllerIntegrationTest {
@@ -30,6 +40,12 @@ class UserControllerIntegrationTestTest extends BaseControllerIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private RoleRepository roleRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
 
     @BeforeEach
     void setUp() {
@@ -39,6 +55,7 @@ class UserControllerIntegrationTestTest extends BaseControllerIntegrationTest {
                 .name("TEST_ROLE")
                 .users(new HashSet<>())
                 .build());
+        statementCounter = new StatementCounter(entityManager);
     }
 
     @Test
@@ -104,6 +121,8 @@ class UserControllerIntegrationTestTest extends BaseControllerIntegrationTest {
                 .andDo(log())
                 .andExpect(status().isOk());
 
+        // The grant is written straight to users_roles, past the user loaded by the registration
+        entityManager.clear();
         User user = userRepository.findByUsername("testuser").orElseThrow();
         assertThat(user.getRoles().stream().anyMatch(role -> role.getName().equals("NEW_ROLE"))).isTrue();
     }
@@ -130,10 +149,106 @@ class UserControllerIntegrationTestTest extends BaseControllerIntegrationTest {
                 .andDo(log())
                 .andExpect(status().isOk());
 
+        entityManager.clear();
         User user = userRepository.findByUsername("testuser").orElseThrow();
         assertThat(user.getRoles().stream().noneMatch(role -> role.getName().equals("TEST_ROLE"))).isTrue();
     }
 
+    @Test
+    void assignRoleToUnknownUser() throws Exception {
+        mockMvc.perform(post("/v1/users/{username}/roles", "ghost")
+                        .param("role", "TEST_ROLE")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void grantAndRevokeRoleForManyUsersWithOneWrite() throws Exception {
+        Role reader = roleRepository.save(Role.builder().name("READER").build());
+        userRepository.saveAllAndFlush(IntStream.range(0, 5)
+                .mapToObj(i -> User.builder()
+                        .username("user" + i)
+                        .password("secret")
+                        .roles(i == 0 ? Set.of(reader) : Set.of())
+                        .build())
+                .toList());
+        statementCounter.reset();
+
+        mockMvc.perform(post("/v1/users/roles:grant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"role": "READER", "usernames": ["user0", "user1", "user2", "user3", "user4", "ghost"]}
+                                """)
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("READER"))
+                .andExpect(jsonPath("$.changed").value(4))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value("ghost"));
+
+        // The role lookup and a single grant statement, the role only comes from the query cache once committed
+        assertThat(statementCounter.count()).isEqualTo(2L);
+        assertThat(userRepository.countWithRole("READER")).isEqualTo(5L);
+        statementCounter.reset();
+
+        mockMvc.perform(post("/v1/users/roles:revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"role": "READER", "usernames": ["user0", "user1"]}
+                                """)
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(2))
+                .andExpect(jsonPath("$.unchanged").value(0))
+                .andExpect(jsonPath("$.notFound.length()").value(0));
+
+        assertThat(statementCounter.count()).isEqualTo(2L);
+        assertThat(userRepository.countWithRole("READER")).isEqualTo(3L);
+    }
+
+    @Test
+    void bulkRegisterUsers() throws Exception {
+        userRepository.saveAndFlush(User.builder().username("existing").password("secret").build());
+        String ndjson = IntStream.range(0, 5)
+                .mapToObj(i -> "{\"username\": \"bulk%d\", \"password\": \"secret%d\", \"roles\": [\"TEST_ROLE\"]}".formatted(i, i))
+                .collect(Collectors.joining("\n", "", """
+
+                        {"username": "existing", "password": "secret"}
+                        {"username": "norole", "password": "secret", "roles": ["MISSING"]}
+                        """));
+
+        mockMvc.perform(post("/v1/users:bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson)
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(5))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.usersPerSecond").isNumber());
+
+        User created = userRepository.findByUsername("bulk3").orElseThrow();
+        assertThat(passwordEncoder.matches("secret3", created.getPassword())).isTrue();
+        assertThat(created.getRoles().stream().map(Role::getName).toList()).isEqualTo(List.of("TEST_ROLE"));
+        assertThat(userRepository.countWithRole("TEST_ROLE")).isEqualTo(5L);
+        assertThat(userRepository.findByUsername("norole")).isEmpty();
+    }
+
+    @Test
+    void grantUnknownRoleIsRejected() throws Exception {
+        mockMvc.perform(post("/v1/users/roles:grant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"role": "MISSING", "usernames": ["user0"]}
+                                """)
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getUser() throws Exception {
         String userJson = new String(
@@ -191,6 +306,56 @@ class UserControllerIntegrationTestTest extends BaseControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllUsersReadsRolesInOneStatement() throws Exception {
+        Role auditor = roleRepository.save(Role.builder().name("AUDITOR").build());
+        Role reader = roleRepository.save(Role.builder().name("READER").build());
+        userRepository.saveAllAndFlush(IntStream.range(0, 20)
+                .mapToObj(i -> User.builder()
+                        .username(String.format("user%02d", i))
+                        .password("secret")
+                        .roles(i % 2 == 0 ? Set.of(auditor, reader) : Set.of(reader))
+                        .build())
+                .toList());
+        statementCounter.reset();
+
+        mockMvc.perform(get("/v1/users")
+                        .param("size", "20")
+                        .param("count", "none")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(jsonPath("$.content[0].username").value("user00"))
+                .andExpect(jsonPath("$.content[0].roles[0]").value("AUDITOR"))
+                .andExpect(jsonPath("$.content[0].roles[1]").value("READER"))
+                .andExpect(jsonPath("$.content[1].roles.length()").value(1));
+
+        assertThat(statementCounter.count()).isEqualTo(1L);
+    }
+
+    @Test
+    void getAllUsersWithRole() throws Exception {
+        Role auditor = roleRepository.save(Role.builder().name("AUDITOR").build());
+        Role reader = roleRepository.save(Role.builder().name("READER").build());
+        userRepository.saveAllAndFlush(IntStream.range(0, 6)
+                .mapToObj(i -> User.builder()
+                        .username("user" + i)
+                        .password("secret")
+                        .roles(i < 2 ? Set.of(auditor, reader) : Set.of(reader))
+                        .build())
+                .toList());
+
+        mockMvc.perform(get("/v1/users")
+                        .param("role", "AUDITOR")
+                        .with(csrf())
+                        .with(user("testuser").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].roles.length()").value(2));
+    }
+
     @Test
     void deleteUser() throws Exception {
         String userJson = new String(
@@ -0,0 +1,100 @@
+package ro.ticle.paula.spring.project.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.ticle.paula.spring.project.model.request.RoleRequest;
+import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.service.RoleService;
+import ro.ticle.paula.spring.project.service.UserService;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+
+// Evictions happen after commit, so these tests run without the test transaction and clean up after themselves
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserDetailsCacheIntegrationTestTest extends BaseControllerIntegrationTest {
+
+    private static final String USERNAME = "cached.user";
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleService.createRole(new RoleRequest("CACHE_READER"));
+        roleService.createRole(new RoleRequest("CACHE_WRITER"));
+        userService.registerUser(new UserRequest(USERNAME, "secret", Set.of("CACHE_READER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername(USERNAME).ifPresent(user -> userService.deleteUser(user.getId()));
+        for (String role : new String[]{"CACHE_READER", "CACHE_WRITER"}) {
+            if (roleRepository.existsByName(role)) {
+                roleService.deleteRoleByName(role);
+            }
+        }
+    }
+
+    @Test
+    void roleChangesAreVisibleOnTheNextLookup() {
+        assertThat(authorities()).containsExactly("ROLE_CACHE_READER");
+
+        userService.assignRoleToUser(USERNAME, "CACHE_WRITER");
+        assertThat(authorities()).containsExactlyInAnyOrder("ROLE_CACHE_READER", "ROLE_CACHE_WRITER");
+
+        userService.removeRoleFromUser(USERNAME, "CACHE_READER");
+        assertThat(authorities()).containsExactly("ROLE_CACHE_WRITER");
+
+        userService.deleteUser(userRepository.findByUsername(USERNAME).orElseThrow().getId());
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername(USERNAME))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void repeatedLoginsAreServedFromCache() throws Exception {
+        double hits = meterRegistry.get("cache.gets").tags("cache", "userDetails", "result", "hit")
+                .functionCounter()
+                .count();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(formLogin().user(USERNAME).password("secret"))
+                    .andExpect(authenticated().withRoles("CACHE_READER"));
+        }
+
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "userDetails", "result", "hit")
+                .functionCounter()
+                .count()).isEqualTo(hits + 2);
+    }
+
+    private Set<String> authorities() {
+        return userDetailsService.loadUserByUsername(USERNAME).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+}
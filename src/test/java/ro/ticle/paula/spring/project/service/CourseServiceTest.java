@@ -9,11 +9,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import ro.ticle.paula.spring.project.entity.Course;
-import ro.ticle.paula.spring.project.entity.Department;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.projection.CourseProjection;
 import ro.ticle.paula.spring.project.model.request.CourseRequest;
 import ro.ticle.paula.spring.project.model.response.CourseResponse;
+import ro.ticle.paula.spring.project.model.response.DepartmentSummaryResponse;
 import ro.ticle.paula.spring.project.repository.CourseRepository;
+import org.springframework.data.domain.Limit;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +28,7 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,13 +47,13 @@ class CourseServiceTest {
                 .title("Test Course")
                 .build();
 
-        when(courseRepository.findByTitle("Test Course")).thenReturn(Optional.of(course));
+        when(courseRepository.findByTitleIn(Set.of("Test Course"))).thenReturn(List.of(course));
 
         Set<Course> result = courseService.getOrCreateCourses(Set.of("Test Course"));
 
         assertThat(result).hasSize(1);
         assertThat(result.iterator().next().getTitle()).isEqualTo("Test Course");
-        verify(courseRepository, never()).save(any());
+        verify(courseRepository, never()).insertMissingTitles(any());
     }
 
     @Test
@@ -56,14 +63,52 @@ class CourseServiceTest {
                 .title("Test Course")
                 .build();
 
-        when(courseRepository.findByTitle("Test Course")).thenReturn(Optional.empty());
-        when(courseRepository.save(any())).thenReturn(course);
+        when(courseRepository.findByTitleIn(Set.of("Test Course"))).thenReturn(List.of());
+        when(courseRepository.insertMissingTitles(new String[]{"Test Course"})).thenReturn(List.of(course));
 
         Set<Course> result = courseService.getOrCreateCourses(Set.of("Test Course"));
 
         assertThat(result).hasSize(1);
         assertThat(result.iterator().next().getTitle()).isEqualTo("Test Course");
-        verify(courseRepository).save(any());
+        verify(courseRepository, times(1)).findByTitleIn(any());
+    }
+
+    @Test
+    void getOrCreateCourses_OnlyInsertsMissingTitles() {
+        Course existing = Course.builder()
+                .id(1L)
+                .title("Math")
+                .build();
+        Course created = Course.builder()
+                .id(2L)
+                .title("Physics")
+                .build();
+
+        when(courseRepository.findByTitleIn(Set.of("Math", "Physics"))).thenReturn(List.of(existing));
+        when(courseRepository.insertMissingTitles(new String[]{"Physics"})).thenReturn(List.of(created));
+
+        Set<Course> result = courseService.getOrCreateCourses(Set.of("Math", "Physics"));
+
+        assertThat(result).containsExactlyInAnyOrder(existing, created);
+        verify(courseRepository, never()).save(any());
+    }
+
+    @Test
+    void getOrCreateCourses_TitleCreatedConcurrently() {
+        Course concurrent = Course.builder()
+                .id(1L)
+                .title("Test Course")
+                .build();
+
+        when(courseRepository.findByTitleIn(Set.of("Test Course")))
+                .thenReturn(List.of())
+                .thenReturn(List.of(concurrent));
+        when(courseRepository.insertMissingTitles(new String[]{"Test Course"})).thenReturn(List.of());
+
+        Set<Course> result = courseService.getOrCreateCourses(Set.of("Test Course"));
+
+        assertThat(result).containsExactly(concurrent);
+        verify(courseRepository, times(2)).findByTitleIn(any());
     }
 
     @Test
@@ -90,52 +135,71 @@ class CourseServiceTest {
 
     @Test
     void getCourses_Success() {
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
-        Course course = Course.builder()
-                .id(1L)
-                .title("Test Course")
-                .department(department)
-                .build();
-        Page<Course> coursePage = new PageImpl<>(List.of(course));
+        Page<CourseProjection> coursePage = new PageImpl<>(List.of(new CourseRow(1L, "Test Course", 1L, "Computer Science")));
 
-        when(courseRepository.findAll(any(PageRequest.class))).thenReturn(coursePage);
+        when(courseRepository.findAllBy(any(PageRequest.class))).thenReturn(coursePage);
 
-        Page<CourseResponse> result = courseService.getCourses(0, 10);
+        PageResponse<CourseResponse> result = courseService.getCourses(0, 10, CountMode.EXACT);
 
-        assertThat(result.getContent()).hasSize(1);
-        CourseResponse response = result.getContent().get(0);
+        assertThat(result.content()).hasSize(1);
+        CourseResponse response = result.content().get(0);
         assertThat(response.id()).isEqualTo(1L);
         assertThat(response.title()).isEqualTo("Test Course");
-        assertThat(response.department()).isEqualTo(department);
+        assertThat(response.department()).isEqualTo(new DepartmentSummaryResponse(1L, "Computer Science"));
     }
 
     @Test
-    void getCourse_Success() {
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
-        Course course = Course.builder()
-                .id(1L)
-                .title("Test Course")
-                .department(department)
-                .build();
+    void getCoursesAfter_FirstPage() {
+        CourseProjection algebra = new CourseRow(1L, "Algebra", null, null);
+        CourseProjection biology = new CourseRow(2L, "Biology", null, null);
+        CourseProjection chemistry = new CourseRow(3L, "Chemistry", null, null);
+
+        when(courseRepository.findFirstKeysetPage(Limit.of(3))).thenReturn(List.of(algebra, biology, chemistry));
+
+        CursorPage<CourseResponse> result = courseService.getCoursesAfter("", 2);
 
-        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        assertThat(result.content()).extracting(CourseResponse::title).containsExactly("Algebra", "Biology");
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(KeysetCursor.decode(result.nextCursor())).isEqualTo(new KeysetCursor("Biology", "2"));
+    }
+
+    @Test
+    void getCoursesAfter_LastPage() {
+        CourseProjection chemistry = new CourseRow(3L, "Chemistry", null, null);
+        String after = KeysetCursor.encode("Biology", 2L);
+
+        when(courseRepository.findKeysetPageAfter("Biology", 2L, Limit.of(3))).thenReturn(List.of(chemistry));
+
+        CursorPage<CourseResponse> result = courseService.getCoursesAfter(after, 2);
+
+        assertThat(result.content()).extracting(CourseResponse::title).containsExactly("Chemistry");
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getCoursesAfter_InvalidCursor() {
+        assertThatThrownBy(() -> courseService.getCoursesAfter("not a cursor", 2))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor");
+
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    void getCourse_Success() {
+        when(courseRepository.findCourseById(1L))
+                .thenReturn(Optional.of(new CourseRow(1L, "Test Course", 1L, "Computer Science")));
 
         CourseResponse result = courseService.getCourse(1L);
 
         assertThat(result.id()).isEqualTo(1L);
         assertThat(result.title()).isEqualTo("Test Course");
-        assertThat(result.department()).isEqualTo(department);
+        assertThat(result.department()).isEqualTo(new DepartmentSummaryResponse(1L, "Computer Science"));
     }
 
     @Test
     void getCourse_NotFound() {
-        when(courseRepository.findById(1L)).thenReturn(Optional.empty());
+        when(courseRepository.findCourseById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> courseService.getCourse(1L))
                 .isInstanceOf(BadRequestException.class)
@@ -144,21 +208,23 @@ class CourseServiceTest {
 
     @Test
     void deleteCourse_Success() {
-        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(courseRepository.softDeleteById(eq(1L), any())).thenReturn(1);
 
         courseService.deleteCourse(1L);
 
-        verify(courseRepository).deleteById(1L);
+        verify(courseRepository, never()).existsById(any());
     }
 
     @Test
     void deleteCourse_NotFound() {
-        when(courseRepository.existsById(1L)).thenReturn(false);
+        when(courseRepository.softDeleteById(eq(1L), any())).thenReturn(0);
 
         assertThatThrownBy(() -> courseService.deleteCourse(1L))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("Course does not exist");
+    }
 
-        verify(courseRepository, never()).deleteById(any());
+    private record CourseRow(Long getId, String getTitle, Long getDepartmentId, String getDepartmentName)
+            implements CourseProjection {
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.model.projection.EnrollmentBatchProjection;
+import ro.ticle.paula.spring.project.model.response.BulkEnrollmentResponse;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentServiceTest {
+
+    private static final String STUDENT_ID = "6f1c2a52-1d0e-4b8e-9a55-2f6f1f0c9a01";
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private EnrollmentService enrollmentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(enrollmentService, "batchSize", 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void bulkEnroll_WritesInChunks() {
+        EnrollmentBatchProjection firstChunk = batchResult(2, 2);
+        EnrollmentBatchProjection secondChunk = batchResult(1, 0);
+        when(enrollmentRepository.insertBatch(any(), any()))
+                .thenReturn(firstChunk)
+                .thenReturn(secondChunk);
+
+        BulkEnrollmentResponse result = enrollmentService.bulkEnroll(ndjson("""
+                {"courseId": 1, "studentId": "%1$s"}
+                {"courseId": 2, "studentId": "%1$s"}
+                {"courseId": 2, "studentId": "%1$s"}
+                """.formatted(STUDENT_ID)));
+
+        assertThat(result.inserted()).isEqualTo(2);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.rejected()).isZero();
+        verify(enrollmentRepository, times(2)).insertBatch(any(), any());
+        verify(enrollmentRepository).insertBatch(new Long[]{1L, 2L},
+                new UUID[]{UUID.fromString(STUDENT_ID), UUID.fromString(STUDENT_ID)});
+    }
+
+    @Test
+    void bulkEnroll_RejectsUnknownReferences() {
+        EnrollmentBatchProjection firstChunk = batchResult(1, 1, 2L);
+        EnrollmentBatchProjection secondChunk = batchResult(0, 0, 1L);
+        when(enrollmentRepository.insertBatch(any(), any()))
+                .thenReturn(firstChunk)
+                .thenReturn(secondChunk);
+
+        BulkEnrollmentResponse result = enrollmentService.bulkEnroll(ndjson("""
+                {"courseId": 1, "studentId": "%1$s"}
+                {"courseId": 1}
+                {"courseId": 99, "studentId": "%1$s"}
+                {"courseId": 98, "studentId": "%1$s"}
+                """.formatted(STUDENT_ID)));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors()).containsExactly(
+                "line 2: courseId and studentId are required",
+                "line 3: course or student not found",
+                "line 4: course or student not found");
+    }
+
+    @Test
+    void bulkEnroll_RejectsInvalidRecords() {
+        EnrollmentBatchProjection chunk = batchResult(1, 1);
+        when(enrollmentRepository.insertBatch(any(), any())).thenReturn(chunk);
+
+        BulkEnrollmentResponse result = enrollmentService.bulkEnroll(ndjson("""
+                {"courseId": 1}
+                {"courseId": 1, "studentId": "not-a-uuid"}
+                {"courseId": 1, "studentId": "%s"}
+                """.formatted(STUDENT_ID)));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors()).containsExactly(
+                "line 1: courseId and studentId are required",
+                "line 2: studentId is not a valid UUID");
+    }
+
+    @Test
+    void bulkEnroll_RejectsFractionalCourseIds() {
+        BulkEnrollmentResponse result = enrollmentService.bulkEnroll(ndjson("""
+                {"courseId": 1.5, "studentId": "%1$s"}
+                {"courseId": "1", "studentId": "%1$s"}
+                """.formatted(STUDENT_ID)));
+
+        assertThat(result.inserted()).isZero();
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors()).containsExactly(
+                "line 1: courseId and studentId are required",
+                "line 2: courseId and studentId are required");
+        verify(enrollmentRepository, never()).insertBatch(any(), any());
+    }
+
+    @Test
+    void bulkEnroll_StopsAtMalformedJson() {
+        EnrollmentBatchProjection chunk = batchResult(1, 1);
+        when(enrollmentRepository.insertBatch(any(), any())).thenReturn(chunk);
+
+        BulkEnrollmentResponse result = enrollmentService.bulkEnroll(ndjson("""
+                {"courseId": 1, "studentId": "%s"}
+                {"courseId": 2,
+                """.formatted(STUDENT_ID)));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).hasSize(1);
+    }
+
+    @Test
+    void bulkEnroll_EmptyBody() {
+        BulkEnrollmentResponse result = enrollmentService.bulkEnroll(ndjson(""));
+
+        assertThat(result.inserted()).isZero();
+        verify(enrollmentRepository, never()).insertBatch(any(), any());
+    }
+
+    private static InputStream ndjson(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EnrollmentBatchProjection batchResult(long matched, long inserted, Long... unmatched) {
+        EnrollmentBatchProjection projection = mock(EnrollmentBatchProjection.class);
+        when(projection.getMatched()).thenReturn(matched);
+        when(projection.getInserted()).thenReturn(inserted);
+        when(projection.getUnmatched()).thenReturn(unmatched);
+        return projection;
+    }
+}
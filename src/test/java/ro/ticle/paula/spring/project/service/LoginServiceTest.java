@@ -0,0 +1,73 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import ro.ticle.paula.spring.project.model.request.LoginRequest;
+import ro.ticle.paula.spring.project.model.response.TokenResponse;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoginServiceTest {
+
+    private static final SecretKey KEY = new SecretKeySpec(
+            "login-service-test-secret-32-bytes".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    private LoginService loginService;
+
+    private final JwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(KEY).macAlgorithm(MacAlgorithm.HS256).build();
+
+    @BeforeEach
+    void setUp() {
+        loginService = new LoginService(authenticationManager, new NimbusJwtEncoder(new ImmutableSecret<>(KEY)));
+        ReflectionTestUtils.setField(loginService, "tokenTtl", Duration.ofMinutes(15));
+    }
+
+    @Test
+    void login_Success() {
+        when(authenticationManager.authenticate(any())).thenReturn(UsernamePasswordAuthenticationToken.authenticated(
+                "testuser", null, AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")));
+
+        TokenResponse response = loginService.login(new LoginRequest("testuser", "password"));
+
+        assertThat(response.tokenType()).isEqualTo("Bearer");
+        assertThat(response.expiresIn()).isEqualTo(900L);
+        Jwt jwt = jwtDecoder.decode(response.accessToken());
+        assertThat(jwt.getSubject()).isEqualTo("testuser");
+        assertThat(jwt.getClaimAsStringList("roles")).containsExactly("ADMIN", "USER");
+        assertThat(Duration.between(jwt.getIssuedAt(), jwt.getExpiresAt())).isEqualTo(Duration.ofMinutes(15));
+    }
+
+    @Test
+    void login_BadCredentials() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThatThrownBy(() -> loginService.login(new LoginRequest("testuser", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+}
@@ -15,9 +15,13 @@ import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.projection.ProfessorProjection;
 import ro.ticle.paula.spring.project.model.request.ProfessorRequest;
 import ro.ticle.paula.spring.project.model.request.ProfessorUpdateRequest;
+import ro.ticle.paula.spring.project.model.response.DepartmentSummaryResponse;
 import ro.ticle.paula.spring.project.model.response.ProfessorResponse;
+import ro.ticle.paula.spring.project.repository.CourseRepository;
 import ro.ticle.paula.spring.project.repository.DepartmentRepository;
 import ro.ticle.paula.spring.project.repository.ProfessorRepository;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +31,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +43,9 @@ class ProfessorServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private CourseRepository courseRepository;
+
     @InjectMocks
     private ProfessorService professorService;
 
@@ -86,49 +94,42 @@ class ProfessorServiceTest {
 
     @Test
     void getProfessors_Success() {
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
         ProfessorProjection professor = mock(ProfessorProjection.class);
         when(professor.getId()).thenReturn(UUID.randomUUID());
         when(professor.getFirstName()).thenReturn("John");
         when(professor.getLastName()).thenReturn("Doe");
         when(professor.getEmail()).thenReturn("john.doe@example.com");
         when(professor.getPhoneNumber()).thenReturn("1234567890");
-        when(professor.getDepartment()).thenReturn(department);
+        when(professor.getDepartmentId()).thenReturn(1L);
+        when(professor.getDepartmentName()).thenReturn("Computer Science");
 
         Page<ProfessorProjection> professorPage = new PageImpl<>(List.of(professor));
         when(professorRepository.findAllBy(any(PageRequest.class))).thenReturn(professorPage);
 
-        Page<ProfessorResponse> result = professorService.getProfessors(0, 10);
+        PageResponse<ProfessorResponse> result = professorService.getProfessors(0, 10, CountMode.EXACT);
 
-        assertThat(result.getContent()).hasSize(1);
-        ProfessorResponse response = result.getContent().get(0);
+        assertThat(result.content()).hasSize(1);
+        ProfessorResponse response = result.content().get(0);
         assertThat(response.firstName()).isEqualTo("John");
         assertThat(response.lastName()).isEqualTo("Doe");
         assertThat(response.email()).isEqualTo("john.doe@example.com");
         assertThat(response.phoneNumber()).isEqualTo("1234567890");
-        assertThat(response.department()).isEqualTo(department);
+        assertThat(response.department()).isEqualTo(new DepartmentSummaryResponse(1L, "Computer Science"));
     }
 
     @Test
     void getProfessor_Success() {
         UUID id = UUID.randomUUID();
-        Department department = Department.builder()
-                .id(1L)
-                .name("Computer Science")
-                .build();
-        Professor professor = Professor.builder()
-                .id(id)
-                .firstName("John")
-                .lastName("Doe")
-                .email("john.doe@example.com")
-                .phoneNumber("1234567890")
-                .department(department)
-                .build();
+        ProfessorProjection professor = mock(ProfessorProjection.class);
+        when(professor.getId()).thenReturn(id);
+        when(professor.getFirstName()).thenReturn("John");
+        when(professor.getLastName()).thenReturn("Doe");
+        when(professor.getEmail()).thenReturn("john.doe@example.com");
+        when(professor.getPhoneNumber()).thenReturn("1234567890");
+        when(professor.getDepartmentId()).thenReturn(1L);
+        when(professor.getDepartmentName()).thenReturn("Computer Science");
 
-        when(professorRepository.findById(id)).thenReturn(Optional.of(professor));
+        when(professorRepository.findProfessorById(id)).thenReturn(Optional.of(professor));
 
         ProfessorResponse result = professorService.getProfessor(id);
 
@@ -137,13 +138,13 @@ class ProfessorServiceTest {
         assertThat(result.lastName()).isEqualTo("Doe");
         assertThat(result.email()).isEqualTo("john.doe@example.com");
         assertThat(result.phoneNumber()).isEqualTo("1234567890");
-        assertThat(result.department()).isEqualTo(department);
+        assertThat(result.department()).isEqualTo(new DepartmentSummaryResponse(1L, "Computer Science"));
     }
 
     @Test
     void getProfessor_NotFound() {
         UUID id = UUID.randomUUID();
-        when(professorRepository.findById(id)).thenReturn(Optional.empty());
+        when(professorRepository.findProfessorById(id)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> professorService.getProfessor(id))
                 .isInstanceOf(BadRequestException.class)
@@ -153,23 +154,22 @@ class ProfessorServiceTest {
     @Test
     void deleteProfessor_Success() {
         UUID id = UUID.randomUUID();
-        when(professorRepository.existsById(id)).thenReturn(true);
+        when(professorRepository.softDeleteById(eq(id), any())).thenReturn(1);
 
         professorService.deleteProfessor(id);
 
-        verify(professorRepository).deleteById(id);
+        verify(courseRepository).unassignProfessor(id);
+        verify(professorRepository, never()).existsById(any());
     }
 
     @Test
     void deleteProfessor_NotFound() {
         UUID id = UUID.randomUUID();
-        when(professorRepository.existsById(id)).thenReturn(false);
+        when(professorRepository.softDeleteById(eq(id), any())).thenReturn(0);
 
         assertThatThrownBy(() -> professorService.deleteProfessor(id))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("Professor not found");
-
-        verify(professorRepository, never()).deleteById(any());
     }
 
     @Test
@@ -5,14 +5,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
 import ro.ticle.paula.spring.project.model.projection.RoleProjection;
 import ro.ticle.paula.spring.project.model.request.RoleRequest;
 import ro.ticle.paula.spring.project.model.response.RoleResponse;
 import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -25,6 +29,12 @@ class RoleServiceTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RoleService roleService;
 
@@ -74,4 +84,32 @@ class RoleServiceTest {
         assertThat(response.id()).isEqualTo(1L);
         assertThat(response.name()).isEqualTo("ROLE_TEST");
     }
-} 
\ No newline at end of file
+
+    @Test
+    void deleteRoleByName_EvictsUsersHoldingTheRole() {
+        Role role = Role.builder()
+                .id(1L)
+                .name("ROLE_TEST")
+                .build();
+
+        when(roleRepository.findByName("ROLE_TEST")).thenReturn(Optional.of(role));
+        when(userRepository.findUsernamesByRoleName("ROLE_TEST")).thenReturn(List.of("alice", "bob"));
+
+        roleService.deleteRoleByName("ROLE_TEST");
+
+        verify(roleRepository).deleteRoleByName("ROLE_TEST");
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(List.of("alice", "bob")));
+    }
+
+    @Test
+    void deleteRoleByName_NotFound() {
+        when(roleRepository.findByName("ROLE_TEST")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> roleService.deleteRoleByName("ROLE_TEST"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Role with name ROLE_TEST does not exist");
+
+        verify(roleRepository, never()).deleteRoleByName(any());
+        verifyNoInteractions(eventPublisher);
+    }
+}
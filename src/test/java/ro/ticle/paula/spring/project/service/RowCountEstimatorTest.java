@@ -0,0 +1,80 @@
+package ro.ticle.paula.spring.project.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ro.ticle.paula.spring.project.repository.TableStatisticsRepository;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RowCountEstimatorTest {
+
+    @Mock
+    private TableStatisticsRepository tableStatisticsRepository;
+
+    private RowCountEstimator rowCountEstimator;
+
+    private final AtomicLong exactCounts = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        rowCountEstimator = new RowCountEstimator(tableStatisticsRepository, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void estimate_UsesPlannerStatistics() {
+        when(tableStatisticsRepository.estimatedRowCount("students")).thenReturn(OptionalLong.of(120_000));
+
+        long estimate = rowCountEstimator.estimate("students", this::countRows);
+
+        assertThat(estimate).isEqualTo(120_000L);
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void estimate_CachesExactCountWithoutStatistics() {
+        when(tableStatisticsRepository.estimatedRowCount("students")).thenReturn(OptionalLong.empty());
+
+        long first = rowCountEstimator.estimate("students", this::countRows);
+        long second = rowCountEstimator.estimate("students", this::countRows);
+
+        assertThat(first).isEqualTo(42L);
+        assertThat(second).isEqualTo(42L);
+        assertThat(exactCounts).hasValue(1);
+    }
+
+    @Test
+    void estimate_RecountsAfterTtl() {
+        rowCountEstimator = new RowCountEstimator(tableStatisticsRepository, Duration.ZERO, 100);
+        when(tableStatisticsRepository.estimatedRowCount("students")).thenReturn(OptionalLong.empty());
+
+        rowCountEstimator.estimate("students", this::countRows);
+        rowCountEstimator.estimate("students", this::countRows);
+
+        assertThat(exactCounts).hasValue(2);
+    }
+
+    @Test
+    void cachedCount_KeepsCountsPerKey() {
+        long admins = rowCountEstimator.cachedCount("users:ADMIN", () -> 3L);
+        long readers = rowCountEstimator.cachedCount("users:READER", () -> 7L);
+
+        assertThat(admins).isEqualTo(3L);
+        assertThat(readers).isEqualTo(7L);
+        assertThat(rowCountEstimator.cachedCount("users:ADMIN", this::countRows)).isEqualTo(3L);
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    private long countRows() {
+        exactCounts.incrementAndGet();
+        return 42L;
+    }
+}
@@ -0,0 +1,153 @@
+package ro.ticle.paula.spring.project.service;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.model.response.StudentImportResponse;
+import ro.ticle.paula.spring.project.repository.StudentImportRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentImportServiceTest {
+
+    private static final String HEADER = "firstName,lastName,email,address,phoneNumber,courseTitles\n";
+
+    @Mock
+    private StudentImportRepository studentImportRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private StudentImportService studentImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(studentImportService, "chunkSize", 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void importStudents_CopiesValidRowsInChunks() {
+        when(studentImportRepository.removeDuplicateEmails(any())).thenReturn(List.of());
+        when(studentImportRepository.mergeStudents(any())).thenReturn(3);
+
+        StudentImportResponse result = studentImportService.importStudents(csv(HEADER + """
+                John,Doe,john@mail.com,Street 1,555-1,Math;Physics
+                Jane,Doe,jane@mail.com,Street 2,555-2,Math
+                "Mc""Quote",Doe,mc@mail.com,"Street 3, Apt 4",555-3,
+                """));
+
+        ArgumentCaptor<String> copyData = ArgumentCaptor.forClass(String.class);
+        verify(studentImportRepository, times(2)).copyToStaging(copyData.capture());
+        assertThat(copyData.getAllValues().get(0)).contains("\"John\"", "\"Math;Physics\"");
+        assertThat(copyData.getAllValues().get(1)).contains("\"Mc\"\"Quote\"", "\"Street 3, Apt 4\"");
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        verify(studentImportRepository).mergeProfiles(any());
+        verify(studentImportRepository).mergeEnrollments(any());
+        verify(studentImportRepository).clearStaging(any());
+    }
+
+    @Test
+    void importStudents_ReportsInvalidRows() {
+        when(studentImportRepository.removeDuplicateEmails(any())).thenReturn(List.of());
+        when(studentImportRepository.mergeStudents(any())).thenReturn(1);
+
+        StudentImportResponse result = studentImportService.importStudents(csv(HEADER + """
+                John,Doe,not-an-email,Street 1,555-1,Math
+                Jane,Doe,jane@mail.com,Street 2,555-2,Math
+                """));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("row 1: email must be a well-formed email address");
+    }
+
+    @Test
+    void importStudents_ReportsDuplicateEmails() {
+        when(studentImportRepository.removeDuplicateEmails(any())).thenReturn(List.of(2L));
+        when(studentImportRepository.mergeStudents(any())).thenReturn(1);
+
+        StudentImportResponse result = studentImportService.importStudents(csv(HEADER + """
+                John,Doe,john@mail.com,Street 1,555-1,Math
+                John,Doe,john@mail.com,Street 1,555-1,Math
+                """));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("row 2: email already exists");
+    }
+
+    @Test
+    void importStudents_StagesEachChunkInItsOwnTransaction() {
+        when(studentImportRepository.removeDuplicateEmails(any())).thenReturn(List.of());
+        when(studentImportRepository.mergeStudents(any())).thenReturn(3);
+
+        studentImportService.importStudents(csv(HEADER + """
+                John,Doe,john@mail.com,Street 1,555-1,Math
+                Jane,Doe,jane@mail.com,Street 2,555-2,Math
+                Mary,Doe,mary@mail.com,Street 3,555-3,Math
+                """));
+
+        // Two staged chunks plus the final merge
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void importStudents_ClearsStagedRowsOnFailure() {
+        when(studentImportRepository.removeDuplicateEmails(any())).thenReturn(List.of());
+        when(studentImportRepository.mergeStudents(any())).thenThrow(new IllegalStateException("merge failed"));
+
+        assertThatThrownBy(() -> studentImportService.importStudents(csv(HEADER + """
+                John,Doe,john@mail.com,Street 1,555-1,Math
+                """)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("merge failed");
+
+        ArgumentCaptor<String> copyData = ArgumentCaptor.forClass(String.class);
+        verify(studentImportRepository).copyToStaging(copyData.capture());
+        ArgumentCaptor<UUID> importId = ArgumentCaptor.forClass(UUID.class);
+        verify(studentImportRepository).clearStaging(importId.capture());
+        assertThat(copyData.getValue()).startsWith(importId.getValue().toString());
+    }
+
+    @Test
+    void importStudents_EmptyFile() {
+        when(studentImportRepository.removeDuplicateEmails(any())).thenReturn(List.of());
+
+        StudentImportResponse result = studentImportService.importStudents(csv(HEADER));
+
+        assertThat(result.imported()).isZero();
+        verify(studentImportRepository, never()).copyToStaging(any());
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
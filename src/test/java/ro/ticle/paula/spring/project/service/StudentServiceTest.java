@@ -12,17 +12,30 @@ import ro.ticle.paula.spring.project.entity.Course;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
 import ro.ticle.paula.spring.project.model.projection.StudentProjection;
 import ro.ticle.paula.spring.project.model.request.StudentRequest;
+import ro.ticle.paula.spring.project.model.response.BulkStudentDeleteResponse;
 import ro.ticle.paula.spring.project.model.response.StudentResponse;
+import ro.ticle.paula.spring.project.repository.EnrollmentRepository;
 import ro.ticle.paula.spring.project.repository.StudentRepository;
+import org.springframework.data.domain.Limit;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.pagination.PageBounds;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
+import org.springframework.data.domain.SliceImpl;
+import ro.ticle.paula.spring.project.model.projection.StudentCourseProjection;
+import ro.ticle.paula.spring.project.model.response.CourseSummaryResponse;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +47,12 @@ class StudentServiceTest {
     @Mock
     private CourseService courseService;
 
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private RowCountEstimator rowCountEstimator;
+
     @InjectMocks
     private StudentService studentService;
 
@@ -51,6 +70,7 @@ class StudentServiceTest {
         studentService.addStudent(request);
 
         verify(studentRepository).save(any());
+        verify(enrollmentRepository).enrollStudent(any(), eq(new Long[]{1L}));
     }
 
     @Test
@@ -64,6 +84,7 @@ class StudentServiceTest {
                 .hasMessage("Student with email already exists");
 
         verify(studentRepository, never()).save(any());
+        verify(enrollmentRepository, never()).enrollStudent(any(), any());
     }
 
     @Test
@@ -73,21 +94,133 @@ class StudentServiceTest {
         when(student.getFirstName()).thenReturn("John");
         when(student.getLastName()).thenReturn("Doe");
         when(student.getEmail()).thenReturn("john.doe@example.com");
-        when(student.getCourses()).thenReturn(Set.of());
 
         Page<StudentProjection> studentPage = new PageImpl<>(List.of(student));
         when(studentRepository.findAllBy(any(PageRequest.class))).thenReturn(studentPage);
 
-        Page<StudentResponse> result = studentService.getStudents(0, 10);
+        PageResponse<StudentResponse> result = studentService.getStudents(0, 10, CountMode.EXACT);
 
-        assertThat(result.getContent()).hasSize(1);
-        StudentResponse response = result.getContent().get(0);
+        assertThat(result.content()).hasSize(1);
+        StudentResponse response = result.content().get(0);
         assertThat(response.firstName()).isEqualTo("John");
         assertThat(response.lastName()).isEqualTo("Doe");
         assertThat(response.email()).isEqualTo("john.doe@example.com");
         assertThat(response.courses()).isEmpty();
     }
 
+    @Test
+    void getStudents_LoadsCoursesForWholePage() {
+        UUID johnId = UUID.randomUUID();
+        UUID janeId = UUID.randomUUID();
+        StudentProjection john = mock(StudentProjection.class);
+        when(john.getId()).thenReturn(johnId);
+        StudentProjection jane = mock(StudentProjection.class);
+        when(jane.getId()).thenReturn(janeId);
+        StudentCourseProjection algebra = mock(StudentCourseProjection.class);
+        when(algebra.getStudentId()).thenReturn(johnId);
+        when(algebra.getCourseId()).thenReturn(1L);
+        when(algebra.getTitle()).thenReturn("Algebra");
+
+        when(studentRepository.findAllBy(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(john, jane)));
+        when(enrollmentRepository.findCoursesByStudentIds(List.of(johnId, janeId))).thenReturn(List.of(algebra));
+
+        PageResponse<StudentResponse> result = studentService.getStudents(0, 10, CountMode.EXACT);
+
+        assertThat(result.content().get(0).courses()).containsExactly(new CourseSummaryResponse(1L, "Algebra"));
+        assertThat(result.content().get(1).courses()).isEmpty();
+        verify(enrollmentRepository, times(1)).findCoursesByStudentIds(any());
+    }
+
+    @Test
+    void getStudents_EstimatedCount() {
+        StudentProjection student = mock(StudentProjection.class);
+        when(student.getLastName()).thenReturn("Doe");
+        PageRequest pageRequest = PageRequest.of(2, 10);
+
+        when(studentRepository.findSliceBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(student), pageRequest, true));
+        when(rowCountEstimator.estimate(eq("students"), any())).thenReturn(5000L);
+
+        PageResponse<StudentResponse> result = studentService.getStudents(2, 10, CountMode.ESTIMATE);
+
+        assertThat(result.content()).extracting(StudentResponse::lastName).containsExactly("Doe");
+        assertThat(result.totalElements()).isEqualTo(5000L);
+        assertThat(result.totalPages()).isEqualTo(500);
+        assertThat(result.totalType()).isEqualTo(CountMode.ESTIMATE);
+        verify(studentRepository, never()).findAllBy(any());
+    }
+
+    @Test
+    void getStudents_EstimateBelowRowsAlreadySeen() {
+        StudentProjection student = mock(StudentProjection.class);
+        PageRequest pageRequest = PageRequest.of(3, 10);
+
+        when(studentRepository.findSliceBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(student), pageRequest, false));
+        when(rowCountEstimator.estimate(eq("students"), any())).thenReturn(0L);
+
+        PageResponse<StudentResponse> result = studentService.getStudents(3, 10, CountMode.ESTIMATE);
+
+        assertThat(result.totalElements()).isEqualTo(31L);
+        assertThat(result.totalPages()).isEqualTo(4);
+    }
+
+    @Test
+    void getStudents_NoCount() {
+        StudentProjection student = mock(StudentProjection.class);
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        when(studentRepository.findSliceBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(student), pageRequest, true));
+
+        PageResponse<StudentResponse> result = studentService.getStudents(0, 10, CountMode.NONE);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.totalElements()).isNull();
+        assertThat(result.totalType()).isEqualTo(CountMode.NONE);
+        verifyNoInteractions(rowCountEstimator);
+        verify(studentRepository, never()).count();
+    }
+
+    @Test
+    void getStudentsAfter_Success() {
+        UUID lastId = UUID.randomUUID();
+        StudentProjection student = mock(StudentProjection.class);
+        when(student.getId()).thenReturn(lastId);
+        when(student.getFirstName()).thenReturn("John");
+        when(student.getLastName()).thenReturn("Doe");
+        when(student.getEmail()).thenReturn("john.doe@example.com");
+        StudentProjection next = mock(StudentProjection.class);
+        String after = KeysetCursor.encode("Adams", UUID.randomUUID());
+
+        when(studentRepository.findKeysetPageAfter(eq("Adams"), any(UUID.class), eq(Limit.of(2))))
+                .thenReturn(List.of(student, next));
+
+        CursorPage<StudentResponse> result = studentService.getStudentsAfter(after, 1);
+
+        assertThat(result.content()).extracting(StudentResponse::lastName).containsExactly("Doe");
+        assertThat(KeysetCursor.decode(result.nextCursor()).uuidId()).isEqualTo(lastId);
+        assertThat(KeysetCursor.decode(result.nextCursor()).key()).isEqualTo("Doe");
+    }
+
+    @Test
+    void getStudentsAfter_SizeOutOfBounds() {
+        for (int size : new int[]{0, PageBounds.MAX_PAGE_SIZE + 1}) {
+            assertThatThrownBy(() -> studentService.getStudentsAfter(null, size))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("size must be between 1 and 100");
+        }
+
+        verifyNoInteractions(studentRepository);
+    }
+
+    @Test
+    void getStudents_NegativePage() {
+        assertThatThrownBy(() -> studentService.getStudents(-1, 10, CountMode.NONE))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("page must not be negative");
+
+        verifyNoInteractions(studentRepository);
+    }
+
     @Test
     void getStudent_Success() {
         UUID id = UUID.randomUUID();
@@ -96,7 +229,6 @@ class StudentServiceTest {
         when(student.getFirstName()).thenReturn("John");
         when(student.getLastName()).thenReturn("Doe");
         when(student.getEmail()).thenReturn("john.doe@example.com");
-        when(student.getCourses()).thenReturn(Set.of());
 
         when(studentRepository.findStudentById(id)).thenReturn(Optional.of(student));
 
@@ -122,22 +254,43 @@ class StudentServiceTest {
     @Test
     void deleteStudent_Success() {
         UUID id = UUID.randomUUID();
-        when(studentRepository.existsById(id)).thenReturn(true);
+        when(studentRepository.softDeleteByIds(eq(Set.of(id)), any())).thenReturn(1);
 
         studentService.deleteStudent(id);
 
-        verify(studentRepository).deleteById(id);
+        verify(studentRepository, never()).existsById(any());
+        verifyNoInteractions(enrollmentRepository);
     }
 
     @Test
     void deleteStudent_NotFound() {
         UUID id = UUID.randomUUID();
-        when(studentRepository.existsById(id)).thenReturn(false);
+        when(studentRepository.softDeleteByIds(eq(Set.of(id)), any())).thenReturn(0);
 
         assertThatThrownBy(() -> studentService.deleteStudent(id))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("Student does not exist");
+    }
+
+    @Test
+    void deleteStudents_ReportsAffectedRows() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(studentRepository.softDeleteByIds(eq(Set.of(first, second)), any())).thenReturn(1);
+
+        BulkStudentDeleteResponse response = studentService.deleteStudents(List.of(first, second, first));
+
+        assertThat(response).isEqualTo(new BulkStudentDeleteResponse(1, 1));
+    }
+
+    @Test
+    void deleteStudents_TooManyIds() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(StudentService.MAX_DELETED_STUDENTS + 1).toList();
+
+        assertThatThrownBy(() -> studentService.deleteStudents(ids))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Between 1 and 1000 student ids are required");
 
-        verify(studentRepository, never()).deleteById(any());
+        verifyNoInteractions(studentRepository);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,164 @@
+package ro.ticle.paula.spring.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.config.OffloadingPasswordEncoder;
+import ro.ticle.paula.spring.project.entity.Role;
+import ro.ticle.paula.spring.project.model.response.BulkUserResponse;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository.NewUser;
+import ro.ticle.paula.spring.project.repository.UserProvisioningRepository.NewUserRole;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProvisioningServiceTest {
+
+    @Mock
+    private UserProvisioningRepository userProvisioningRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private OffloadingPasswordEncoder passwordEncoder;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private UserProvisioningService userProvisioningService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userProvisioningService, "chunkSize", 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(passwordEncoder.encodeAll(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .map(password -> "hash:" + password)
+                .toList());
+    }
+
+    @Test
+    void bulkRegister_InsertsChunksWithRolesResolvedOnce() {
+        when(roleRepository.findByName("READER")).thenReturn(Optional.of(Role.builder().id(7L).name("READER").build()));
+        when(userProvisioningRepository.findExistingUsernames(any())).thenReturn(List.of());
+        when(userProvisioningRepository.countUsers(any())).thenReturn(2L, 1L);
+
+        BulkUserResponse result = userProvisioningService.bulkRegister(ndjson("""
+                {"username": "alice", "password": "a", "roles": ["READER"]}
+                {"username": "bob", "password": "b", "roles": ["READER"]}
+                {"username": "carol", "password": "c"}
+                """));
+
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        // Three users in well under a second is a rate above three per second, not the count itself
+        assertThat(result.usersPerSecond()).isGreaterThan(3.0);
+        verify(roleRepository).findByName("READER");
+        ArgumentCaptor<List<NewUser>> users = userCaptor();
+        verify(userProvisioningRepository, times(2)).insertUsers(users.capture());
+        assertThat(users.getAllValues().get(0)).extracting(NewUser::username, NewUser::password)
+                .containsExactly(tuple("alice", "hash:a"), tuple("bob", "hash:b"));
+        assertThat(users.getAllValues().get(1)).extracting(NewUser::username).containsExactly("carol");
+        ArgumentCaptor<List<NewUserRole>> roles = userRoleCaptor();
+        verify(userProvisioningRepository, times(2)).insertUserRoles(roles.capture());
+        assertThat(roles.getAllValues().get(0)).extracting(NewUserRole::roleId).containsExactly(7L, 7L);
+        assertThat(roles.getAllValues().get(1)).isEmpty();
+    }
+
+    @Test
+    void bulkRegister_RejectsInvalidDuplicateAndExistingUsersBeforeHashing() {
+        when(roleRepository.findByName("MISSING")).thenReturn(Optional.empty());
+        when(userProvisioningRepository.findExistingUsernames(any())).thenReturn(List.of("taken"));
+
+        BulkUserResponse result = userProvisioningService.bulkRegister(ndjson("""
+                {"username": "", "password": "a"}
+                {"username": "taken", "password": "b"}
+                {"username": "taken", "password": "c"}
+                {"username": "dave", "password": "d", "roles": ["MISSING"]}
+                """));
+
+        assertThat(result.created()).isZero();
+        assertThat(result.rejected()).isEqualTo(4);
+        assertThat(result.errors()).containsExactly(
+                "line 1: username must not be empty",
+                "line 3: username appears earlier in the upload",
+                "line 2: username already exists",
+                "line 4: role not found: MISSING");
+        verifyNoInteractions(passwordEncoder);
+        verify(userProvisioningRepository, never()).insertUsers(any());
+    }
+
+    @Test
+    void bulkRegister_CountsUsersRegisteredConcurrentlyAsRejected() {
+        when(userProvisioningRepository.findExistingUsernames(any())).thenReturn(List.of());
+        when(userProvisioningRepository.countUsers(any())).thenReturn(1L);
+
+        BulkUserResponse result = userProvisioningService.bulkRegister(ndjson("""
+                {"username": "alice", "password": "a"}
+                {"username": "bob", "password": "b"}
+                """));
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkRegister_StopsAtMalformedJson() {
+        when(userProvisioningRepository.findExistingUsernames(any())).thenReturn(List.of());
+        when(userProvisioningRepository.countUsers(any())).thenReturn(1L);
+
+        BulkUserResponse result = userProvisioningService.bulkRegister(ndjson("""
+                {"username": "alice", "password": "a"}
+                {"username": "bob",
+                """));
+
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().asString().endsWith("malformed JSON, remaining input was skipped");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<NewUser>> userCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<NewUserRole>> userRoleCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static InputStream ndjson(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
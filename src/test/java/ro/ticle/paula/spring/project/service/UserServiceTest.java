@@ -5,18 +5,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import ro.ticle.paula.spring.project.entity.Role;
 import ro.ticle.paula.spring.project.entity.User;
 import ro.ticle.paula.spring.project.exceptions.BadRequestException;
+import ro.ticle.paula.spring.project.model.event.UserDetailsChangedEvent;
+import ro.ticle.paula.spring.project.model.projection.RoleAssignmentProjection;
 import ro.ticle.paula.spring.project.model.projection.UserProjection;
+import ro.ticle.paula.spring.project.model.request.RoleAssignmentRequest;
 import ro.ticle.paula.spring.project.model.request.UserRequest;
+import ro.ticle.paula.spring.project.model.response.RoleAssignmentResponse;
 import ro.ticle.paula.spring.project.model.response.UserResponse;
 import ro.ticle.paula.spring.project.repository.RoleRepository;
 import ro.ticle.paula.spring.project.repository.UserRepository;
+import ro.ticle.paula.spring.project.model.pagination.CountMode;
+import ro.ticle.paula.spring.project.model.pagination.KeysetCursor;
+import ro.ticle.paula.spring.project.model.response.CursorPage;
+import ro.ticle.paula.spring.project.model.response.PageResponse;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +37,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +50,13 @@ class UserServiceTest {
     private RoleRepository roleRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RowCountEstimator rowCountEstimator;
 
     @InjectMocks
     private UserService userService;
@@ -74,110 +92,101 @@ class UserServiceTest {
 
     @Test
     void assignRoleToUser_Success() {
-        User user = User.builder()
-                .id(UUID.randomUUID())
-                .username("testuser")
-                .password("encoded_password")
-                .enabled(true)
-                .roles(new java.util.HashSet<>())
-                .build();
-        Role role = Role.builder()
-                .id(1L)
-                .name("ROLE_ADMIN")
-                .build();
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.grantRole(new String[]{"testuser"}, 1L)).thenReturn(assignment(1, 1));
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role));
+        userService.assignRoleToUser("testuser", "ROLE_ADMIN");
+
+        verify(userRepository, never()).findByUsername(any());
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(List.of("testuser")));
+    }
+
+    @Test
+    void assignRoleToUser_AlreadyAssigned() {
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.grantRole(new String[]{"testuser"}, 1L)).thenReturn(assignment(1, 0));
 
         userService.assignRoleToUser("testuser", "ROLE_ADMIN");
 
-        verify(userRepository).save(user);
-        assertThat(user.getRoles()).contains(role);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void assignRoleToUser_UserNotFound() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.grantRole(new String[]{"testuser"}, 1L)).thenReturn(assignment(0, 0, "testuser"));
 
         assertThatThrownBy(() -> userService.assignRoleToUser("testuser", "ROLE_ADMIN"))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("User not found");
-
-        verify(userRepository, never()).save(any());
     }
 
     @Test
     void assignRoleToUser_RoleNotFound() {
-        User user = User.builder()
-                .id(UUID.randomUUID())
-                .username("testuser")
-                .password("encoded_password")
-                .enabled(true)
-                .roles(new java.util.HashSet<>())
-                .build();
-
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.assignRoleToUser("testuser", "ROLE_ADMIN"))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("Role not found");
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).grantRole(any(), any());
     }
 
     @Test
     void removeRoleFromUser_Success() {
-        Role role = Role.builder()
-                .id(1L)
-                .name("ROLE_ADMIN")
-                .build();
-        User user = User.builder()
-                .id(UUID.randomUUID())
-                .username("testuser")
-                .password("encoded_password")
-                .enabled(true)
-                .roles(new java.util.HashSet<>(Set.of(role)))
-                .build();
-
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role));
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.revokeRole(new String[]{"testuser"}, 1L)).thenReturn(assignment(1, 1));
 
         userService.removeRoleFromUser("testuser", "ROLE_ADMIN");
 
-        verify(userRepository).save(user);
-        assertThat(user.getRoles()).doesNotContain(role);
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(List.of("testuser")));
     }
 
     @Test
     void removeRoleFromUser_UserNotFound() {
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.revokeRole(new String[]{"testuser"}, 1L)).thenReturn(assignment(0, 0, "testuser"));
 
         assertThatThrownBy(() -> userService.removeRoleFromUser("testuser", "ROLE_ADMIN"))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("User not found");
 
-        verify(userRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void removeRoleFromUser_RoleNotFound() {
-        User user = User.builder()
-                .id(UUID.randomUUID())
-                .username("testuser")
-                .password("encoded_password")
-                .enabled(true)
-                .roles(new java.util.HashSet<>())
-                .build();
-
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.removeRoleFromUser("testuser", "ROLE_ADMIN"))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("Role not found");
 
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).revokeRole(any(), any());
+    }
+
+    @Test
+    void grantRoleToUsers_ReportsChangedUnchangedAndMissing() {
+        RoleAssignmentRequest request = new RoleAssignmentRequest("ROLE_ADMIN", Set.of("alice", "bob", "ghost"));
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.grantRole(any(), eq(1L))).thenReturn(assignment(2, 1, "ghost"));
+
+        RoleAssignmentResponse response = userService.grantRoleToUsers(request);
+
+        assertThat(response).isEqualTo(new RoleAssignmentResponse("ROLE_ADMIN", 1, 1, List.of("ghost")));
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(request.usernames()));
+    }
+
+    @Test
+    void revokeRoleFromUsers_NothingChanged() {
+        RoleAssignmentRequest request = new RoleAssignmentRequest("ROLE_ADMIN", Set.of("alice"));
+        when(roleRepository.findByName("ROLE_ADMIN")).thenReturn(Optional.of(role()));
+        when(userRepository.revokeRole(new String[]{"alice"}, 1L)).thenReturn(assignment(1, 0));
+
+        RoleAssignmentResponse response = userService.revokeRoleFromUsers(request);
+
+        assertThat(response).isEqualTo(new RoleAssignmentResponse("ROLE_ADMIN", 0, 1, List.of()));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -187,7 +196,7 @@ class UserServiceTest {
         when(user.getId()).thenReturn(id);
         when(user.getUsername()).thenReturn("testuser");
         when(user.getEnabled()).thenReturn(true);
-        when(user.getRoles()).thenReturn(Set.of());
+        when(user.getRoles()).thenReturn(List.of());
 
         when(userRepository.findUserById(id)).thenReturn(Optional.of(user));
 
@@ -216,40 +225,126 @@ class UserServiceTest {
         when(user.getId()).thenReturn(id);
         when(user.getUsername()).thenReturn("testuser");
         when(user.getEnabled()).thenReturn(true);
-        when(user.getRoles()).thenReturn(Set.of());
+        when(user.getRoles()).thenReturn(List.of());
 
         Page<UserProjection> userPage = new PageImpl<>(List.of(user));
         when(userRepository.findAllUsers(any(PageRequest.class))).thenReturn(userPage);
 
-        Page<UserResponse> result = userService.getAllUsers(0, 10);
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 10, CountMode.EXACT, null);
 
-        assertThat(result.getContent()).hasSize(1);
-        UserResponse response = result.getContent().get(0);
+        assertThat(result.content()).hasSize(1);
+        UserResponse response = result.content().get(0);
         assertThat(response.id()).isEqualTo(id);
         assertThat(response.username()).isEqualTo("testuser");
         assertThat(response.enabled()).isTrue();
         assertThat(response.roles()).isEmpty();
     }
 
+    @Test
+    void getAllUsers_WithRole() {
+        UserProjection user = mock(UserProjection.class);
+        when(user.getUsername()).thenReturn("admin");
+        when(user.getRoles()).thenReturn(List.of("ADMIN", "USER"));
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        when(roleRepository.findByName("ADMIN")).thenReturn(Optional.of(Role.builder().name("ADMIN").build()));
+
+        when(userRepository.findUserSliceWithRole("ADMIN", pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(user), pageRequest, false));
+
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 10, CountMode.NONE, "ADMIN");
+
+        assertThat(result.content()).extracting(UserResponse::username).containsExactly("admin");
+        assertThat(result.content().get(0).roles()).containsExactly("ADMIN", "USER");
+        verify(userRepository, never()).findUserSlice(any());
+    }
+
+    @Test
+    void getAllUsers_UnknownRole() {
+        when(roleRepository.findByName("GHOST")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getAllUsers(0, 10, CountMode.ESTIMATE, "GHOST"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Role not found");
+
+        verifyNoInteractions(rowCountEstimator);
+        verify(userRepository, never()).findUserSliceWithRole(any(), any());
+    }
+
+    @Test
+    void getAllUsersAfter_WithRole() {
+        UserProjection user = mock(UserProjection.class);
+        when(user.getUsername()).thenReturn("admin");
+        when(user.getRoles()).thenReturn(List.of("ADMIN"));
+        String after = KeysetCursor.encode("aaron", UUID.randomUUID());
+        when(roleRepository.findByName("ADMIN")).thenReturn(Optional.of(Role.builder().name("ADMIN").build()));
+        when(userRepository.findKeysetPageAfterWithRole(eq("ADMIN"), eq("aaron"), any(UUID.class), eq(Limit.of(11))))
+                .thenReturn(List.of(user));
+
+        CursorPage<UserResponse> result = userService.getAllUsersAfter(after, 10, "ADMIN");
+
+        assertThat(result.content()).extracting(UserResponse::username).containsExactly("admin");
+        assertThat(result.nextCursor()).isNull();
+        verify(userRepository, never()).findKeysetPageAfter(any(), any(), any());
+    }
+
+    @Test
+    void getAllUsersAfter_UnknownRole() {
+        when(roleRepository.findByName("GHOST")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getAllUsersAfter("", 10, "GHOST"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Role not found");
+
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void deleteUser_Success() {
         UUID id = UUID.randomUUID();
-        when(userRepository.existsById(id)).thenReturn(true);
+        when(userRepository.findUsernameById(id)).thenReturn(Optional.of("testuser"));
 
         userService.deleteUser(id);
 
         verify(userRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent(List.of("testuser")));
     }
 
     @Test
     void deleteUser_NotFound() {
         UUID id = UUID.randomUUID();
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.findUsernameById(id)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.deleteUser(id))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessage("User not found");
 
         verify(userRepository, never()).deleteById(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Role role() {
+        return Role.builder()
+                .id(1L)
+                .name("ROLE_ADMIN")
+                .build();
+    }
+
+    private static RoleAssignmentProjection assignment(long matched, long changed, String... missing) {
+        return new RoleAssignmentProjection() {
+            @Override
+            public Long getMatched() {
+                return matched;
+            }
+
+            @Override
+            public Long getChanged() {
+                return changed;
+            }
+
+            @Override
+            public List<String> getMissing() {
+                return List.of(missing);
+            }
+        };
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package ro.ticle.paula.spring.project.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ro.ticle.paula.spring.project.repository.RoleRepository;
+import ro.ticle.paula.spring.project.repository.UserRepository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InitialUserSetupServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private InitialUserSetupService initialUserSetupService;
+
+    @Test
+    void init_CreatesAdminOnFirstStart() {
+        when(userRepository.tryTransactionLock("initial-user-setup")).thenReturn(true);
+        when(userRepository.existsByUsername("admin")).thenReturn(false);
+        when(passwordEncoder.encode("admin")).thenReturn("hashed");
+
+        initialUserSetupService.init();
+
+        verify(roleRepository).insertIfAbsent("ADMIN");
+        verify(userRepository).insertIfAbsentWithRole(any(), eq("admin"), eq("hashed"), eq("ADMIN"));
+    }
+
+    @Test
+    void init_ExistingAdminIsNotHashedAgain() {
+        when(userRepository.tryTransactionLock("initial-user-setup")).thenReturn(true);
+        when(userRepository.existsByUsername("admin")).thenReturn(true);
+
+        initialUserSetupService.init();
+
+        verify(roleRepository).insertIfAbsent("ADMIN");
+        verifyNoInteractions(passwordEncoder);
+        verify(userRepository, never()).insertIfAbsentWithRole(any(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void init_SkippedWhileAnotherNodeHoldsTheLock() {
+        when(userRepository.tryTransactionLock("initial-user-setup")).thenReturn(false);
+
+        initialUserSetupService.init();
+
+        verifyNoInteractions(roleRepository, passwordEncoder);
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+}
@@ -0,0 +1,92 @@
+package ro.ticle.paula.spring.project.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.ticle.paula.spring.project.repository.SoftDeletePurgeRepository;
+import ro.ticle.paula.spring.project.repository.SoftDeletePurgeRepository.Step;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeletePurgeServiceTest {
+
+    @Mock
+    private SoftDeletePurgeRepository softDeletePurgeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SoftDeletePurgeService softDeletePurgeService;
+
+    @BeforeEach
+    void setUp() {
+        softDeletePurgeService = new SoftDeletePurgeService(softDeletePurgeRepository, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(softDeletePurgeService, "batchSize", 2);
+        ReflectionTestUtils.setField(softDeletePurgeService, "batchDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(softDeletePurgeService, "lockTimeout", Duration.ofSeconds(1));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(softDeletePurgeRepository.deleteBatch(any(), anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(1).size());
+    }
+
+    @Test
+    void purge_DeletesBatchesUntilOneIsNotFull() {
+        lenient().when(softDeletePurgeRepository.lockBatch(Step.STUDENTS, 2))
+                .thenReturn(List.of("(0,1)", "(0,2)"))
+                .thenReturn(List.of("(0,3)"));
+
+        softDeletePurgeService.purge();
+
+        verify(softDeletePurgeRepository).deleteBatch(Step.STUDENTS, List.of("(0,1)", "(0,2)"));
+        verify(softDeletePurgeRepository).deleteBatch(Step.STUDENTS, List.of("(0,3)"));
+        verify(softDeletePurgeRepository, times(2)).lockBatch(Step.STUDENTS, 2);
+        verify(softDeletePurgeRepository, never()).deleteBatch(eq(Step.COURSES), anyList());
+        verify(softDeletePurgeRepository, times(Step.values().length + 1)).setLockTimeout(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("purge.rows").tag("step", "STUDENTS").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("purge.lock.wait").tag("step", "STUDENTS").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void purge_LockTimeoutMovesOnToTheNextStep() {
+        lenient().when(softDeletePurgeRepository.lockBatch(Step.STUDENT_ENROLLMENTS, 2))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        softDeletePurgeService.purge();
+
+        verify(softDeletePurgeRepository, never()).deleteBatch(eq(Step.STUDENT_ENROLLMENTS), anyList());
+        verify(softDeletePurgeRepository).lockBatch(Step.STUDENTS, 2);
+        assertThat(meterRegistry.get("purge.lock.timeouts").tag("step", "STUDENT_ENROLLMENTS").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("purge.lock.wait").tag("step", "STUDENT_ENROLLMENTS").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void purge_PublishesTheBacklogLeftAfterTheRun() {
+        lenient().when(softDeletePurgeRepository.countBacklog(Step.COURSES)).thenReturn(7L);
+
+        softDeletePurgeService.purge();
+
+        assertThat(meterRegistry.get("purge.backlog").tag("step", "COURSES").gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("purge.backlog").tag("step", "STUDENTS").gauge().value()).isZero();
+    }
+}
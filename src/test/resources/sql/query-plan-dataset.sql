@@ -0,0 +1,56 @@
+-- Copies of the application tables with all their indexes, filled with enough rows that the planner prefers an index
+-- wherever one applies. Foreign keys are not copied, the referencing lookups are checked separately.
+CREATE SCHEMA plan_check;
+
+CREATE TABLE plan_check.departments (LIKE public.departments INCLUDING ALL);
+CREATE TABLE plan_check.professors (LIKE public.professors INCLUDING ALL);
+CREATE TABLE plan_check.courses (LIKE public.courses INCLUDING ALL);
+CREATE TABLE plan_check.students (LIKE public.students INCLUDING ALL);
+CREATE TABLE plan_check.student_profiles (LIKE public.student_profiles INCLUDING ALL);
+CREATE TABLE plan_check.enrollment (LIKE public.enrollment INCLUDING ALL);
+CREATE TABLE plan_check.roles (LIKE public.roles INCLUDING ALL);
+CREATE TABLE plan_check.users (LIKE public.users INCLUDING ALL);
+CREATE TABLE plan_check.users_roles (LIKE public.users_roles INCLUDING ALL);
+CREATE TABLE plan_check.student_import_staging (LIKE public.student_import_staging INCLUDING ALL);
+
+INSERT INTO plan_check.departments (id, name)
+SELECT g, 'Department ' || g
+FROM generate_series(1, 10000) g;
+
+INSERT INTO plan_check.professors (id, first_name, last_name, email, phone_number, department_id)
+SELECT md5('professor' || g)::uuid, 'First ' || g, 'Last ' || g, 'professor' || g || '@mail.com', '07' || g, 1 + g % 10000
+FROM generate_series(1, 20000) g;
+
+INSERT INTO plan_check.courses (id, title, professor_id, department_id)
+SELECT g, 'Course ' || g, md5('professor' || 1 + g % 20000)::uuid, 1 + g % 10000
+FROM generate_series(1, 10000) g;
+
+INSERT INTO plan_check.students (id, first_name, last_name, email)
+SELECT md5('student' || g)::uuid, 'First ' || g, 'Last ' || g, 'student' || g || '@mail.com'
+FROM generate_series(1, 50000) g;
+
+INSERT INTO plan_check.student_profiles (id, address, phone_number, student_id)
+SELECT md5('profile' || g)::uuid, 'Street ' || g, '07' || g, md5('student' || g)::uuid
+FROM generate_series(1, 50000) g;
+
+INSERT INTO plan_check.enrollment (course_id, student_id)
+SELECT 1 + (g * 5 + k) % 10000, md5('student' || g)::uuid
+FROM generate_series(1, 50000) g,
+     generate_series(0, 4) k;
+
+INSERT INTO plan_check.roles (id, name)
+SELECT g, 'ROLE_' || g
+FROM generate_series(1, 100) g;
+
+INSERT INTO plan_check.users (id, username, password, enabled)
+SELECT md5('user' || g)::uuid, 'user' || g, 'password', true
+FROM generate_series(1, 50000) g;
+
+INSERT INTO plan_check.users_roles (user_id, role_id)
+SELECT md5('user' || g)::uuid, 1 + (g + k * 50) % 100
+FROM generate_series(1, 50000) g,
+     generate_series(0, 1) k;
+
+ANALYZE plan_check.departments, plan_check.professors, plan_check.courses, plan_check.students,
+    plan_check.student_profiles, plan_check.enrollment, plan_check.roles, plan_check.users, plan_check.users_roles,
+    plan_check.student_import_staging;